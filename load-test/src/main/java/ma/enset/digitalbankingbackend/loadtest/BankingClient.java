@@ -0,0 +1,154 @@
+package ma.enset.digitalbankingbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Thin HTTP client for the banking API. Tokens issued by /auth/login live ten minutes, so the
+ * client logs in again shortly before expiry or after a 401.
+ */
+public class BankingClient {
+    private static final long TOKEN_LIFETIME_NANOS = Duration.ofMinutes(8).toNanos();
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private volatile String token;
+    private volatile long tokenIssuedAt;
+
+    public BankingClient(String baseUrl, String username, String password) {
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    public synchronized void login() throws IOException, InterruptedException {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Login as " + username + " failed with status " + response.statusCode());
+        }
+        token = objectMapper.readTree(response.body()).get("access-token").asText();
+        tokenIssuedAt = System.nanoTime();
+    }
+
+    public void importCustomers(String ndjson) throws IOException, InterruptedException {
+        HttpRequest request = authorized(request("/customers/import")
+                .timeout(Duration.ofMinutes(10))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson))).build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Customer import failed with status " + response.statusCode());
+        }
+    }
+
+    public List<String> accountIds() throws IOException, InterruptedException {
+        return fieldValues(get("/accounts"), "id");
+    }
+
+    public List<String> customerNames() throws IOException, InterruptedException {
+        return fieldValues(get("/customers"), "name");
+    }
+
+    public int getBankAccount(String accountId) throws IOException, InterruptedException {
+        return send(request("/accounts/" + accountId).GET());
+    }
+
+    public int pageOperations(String accountId, int page, int size) throws IOException, InterruptedException {
+        return send(request("/accounts/" + accountId + "/pageOperations?page=" + page + "&size=" + size).GET());
+    }
+
+    public byte[] pageOperations(String accountId, int page, int size, String mediaType) throws IOException, InterruptedException {
+        String path = "/accounts/" + accountId + "/pageOperations?page=" + page + "&size=" + size;
+        HttpResponse<byte[]> response = httpClient.send(authorized(request(path).header("Accept", mediaType).GET()).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " as " + mediaType + " failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    public int debit(String accountId, double amount) throws IOException, InterruptedException {
+        return post("/accounts/debit", Map.of("accountId", accountId, "amount", amount, "description", "Load test debit"));
+    }
+
+    public int credit(String accountId, double amount) throws IOException, InterruptedException {
+        return post("/accounts/credit", Map.of("accountId", accountId, "amount", amount, "description", "Load test credit"));
+    }
+
+    public int transfer(String source, String destination, double amount) throws IOException, InterruptedException {
+        return post("/accounts/transfer", Map.of("accountSource", source, "accountDestination", destination, "amount", amount));
+    }
+
+    public int searchCustomers(String keyword) throws IOException, InterruptedException {
+        return send(request("/customers/search?keyword=" + URLEncoder.encode(keyword, StandardCharsets.UTF_8)).GET());
+    }
+
+    private int post(String path, Map<String, Object> body) throws IOException, InterruptedException {
+        return send(request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))));
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(authorized(request(path).GET()).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " failed with status " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private int send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        if (System.nanoTime() - tokenIssuedAt > TOKEN_LIFETIME_NANOS) {
+            refreshToken(token);
+        }
+        int status = httpClient.send(authorized(builder).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 401) {
+            refreshToken(token);
+        }
+        return status;
+    }
+
+    private synchronized void refreshToken(String expired) throws IOException, InterruptedException {
+        if (Objects.equals(expired, token)) {
+            login();
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder builder) {
+        return builder.setHeader("Authorization", "Bearer " + token);
+    }
+
+    private static List<String> fieldValues(JsonNode array, String field) {
+        List<String> values = new ArrayList<>();
+        array.forEach(node -> values.add(node.get(field).asText()));
+        return values;
+    }
+}
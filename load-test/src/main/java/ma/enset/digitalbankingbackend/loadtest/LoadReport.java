@@ -0,0 +1,99 @@
+package ma.enset.digitalbankingbackend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes summary.json with throughput, error rates and latency percentiles in milliseconds, plus one
+ * HdrHistogram percentile distribution (.hgrm) per operation. Throughput is divided by the measured
+ * time, which runs past the configured duration until the last in-flight request has returned.
+ */
+public class LoadReport {
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestConfig config;
+    private final Map<Operation, OperationStats> stats;
+    private final double measuredSeconds;
+
+    public LoadReport(LoadTestConfig config, Map<Operation, OperationStats> stats, double measuredSeconds) {
+        this.config = config;
+        this.stats = stats;
+        this.measuredSeconds = measuredSeconds;
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        double seconds = measuredSeconds;
+        long totalRequests = 0;
+        long totalErrors = 0;
+        Histogram total = new Histogram(3);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            totalRequests += operationStats.getRequests();
+            totalErrors += operationStats.getErrors();
+            total.add(operationStats.getLatencies());
+            Map<String, Object> operation = summary(operationStats.getRequests(), operationStats.getErrors(), seconds, operationStats.getLatencies());
+            operation.put("outcomes", operationStats.getOutcomes());
+            operations.put(entry.getKey().getKey(), operation);
+            writeDistribution(directory.resolve(entry.getKey().getKey() + ".hgrm"), operationStats.getLatencies());
+        }
+        writeDistribution(directory.resolve("all.hgrm"), total);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", config.getBaseUrl());
+        report.put("clients", config.getClients());
+        report.put("warmupSeconds", config.getWarmupSeconds());
+        report.put("durationSeconds", config.getDurationSeconds());
+        report.put("measuredSeconds", measuredSeconds);
+        report.put("zipfExponent", config.getZipfExponent());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        config.getMix().forEach((operation, weight) -> mix.put(operation.getKey(), weight));
+        report.put("mix", mix);
+        report.put("total", summary(totalRequests, totalErrors, seconds, total));
+        report.put("operations", operations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(directory.resolve("summary.json").toFile(), report);
+
+        System.out.printf("%-16s %10s %10s %8s %9s %9s %9s %9s%n", "operation", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        stats.forEach((operation, operationStats) -> printRow(operation.getKey(), operationStats.getRequests(), operationStats.getErrors(), seconds, operationStats.getLatencies()));
+        printRow("total", totalRequests, totalErrors, seconds, total);
+        System.out.println("Report written to " + directory.toAbsolutePath());
+    }
+
+    private static Map<String, Object> summary(long requests, long errors, double seconds, Histogram latencies) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests == 0 ? 0 : (double) errors / requests);
+        summary.put("throughput", requests / seconds);
+        Map<String, Double> latency = new LinkedHashMap<>();
+        latency.put("mean", latencies.getMean() / MICROS_PER_MILLI);
+        for (double percentile : new double[]{50, 90, 95, 99, 99.9, 99.99}) {
+            latency.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    latencies.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+        }
+        latency.put("max", latencies.getMaxValue() / MICROS_PER_MILLI);
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    private static void writeDistribution(Path path, Histogram latencies) throws IOException {
+        try (PrintStream output = new PrintStream(Files.newOutputStream(path))) {
+            latencies.outputPercentileDistribution(output, MICROS_PER_MILLI);
+        }
+    }
+
+    private static void printRow(String name, long requests, long errors, double seconds, Histogram latencies) {
+        System.out.printf("%-16s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n", name, requests, requests / seconds, errors,
+                latencies.getValueAtPercentile(50) / MICROS_PER_MILLI, latencies.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI, latencies.getMaxValue() / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,152 @@
+package ma.enset.digitalbankingbackend.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load generator: each client repeatedly picks an operation from the weighted mix and an
+ * account from a Zipf distribution, waits for the response and goes again. Only requests started
+ * after the warm-up are recorded.
+ * <p>
+ * Start the backend first, for example against H2 with JWT_SECRET set:
+ * {@code ./mvnw spring-boot:run -Ph2 -Dspring-boot.run.profiles=h2}, then run
+ * {@code mvn -f load-test/pom.xml compile exec:java -Dexec.args="seed-customers=10000 clients=128"}.
+ */
+public class LoadTest {
+    private final LoadTestConfig config;
+    private final BankingClient client;
+    private final List<String> accountIds;
+    private final List<String> keywords;
+    private final ZipfDistribution zipf;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    public LoadTest(LoadTestConfig config) throws IOException, InterruptedException {
+        this.config = config;
+        this.client = new BankingClient(config.getBaseUrl(), config.getUsername(), config.getPassword());
+        client.login();
+        if (config.getSeedCustomers() > 0) {
+            seedCustomers(config.getSeedCustomers());
+        }
+        List<String> ids = new ArrayList<>(client.accountIds());
+        if (ids.size() < 2) {
+            throw new IllegalStateException("The load test needs at least two accounts, found " + ids.size());
+        }
+        Collections.shuffle(ids, new Random(42));
+        this.accountIds = ids;
+        this.keywords = client.customerNames().stream()
+                .map(name -> name.substring(0, Math.min(3, name.length())))
+                .distinct()
+                .toList();
+        this.zipf = new ZipfDistribution(ids.size(), config.getZipfExponent());
+        Map<Operation, Integer> mix = config.getMix();
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+            stats.put(operations[i], new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig(args);
+        new LoadTest(config).run();
+    }
+
+    public void run() throws IOException, InterruptedException {
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        System.out.printf("%d clients, %d accounts, %ds warm-up, %ds measured against %s%n", config.getClients(),
+                accountIds.size(), config.getWarmupSeconds(), config.getDurationSeconds(), config.getBaseUrl());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.getClients(); i++) {
+                executor.execute(() -> runClient(measureFrom, end));
+            }
+        }
+        double measuredSeconds = (System.nanoTime() - measureFrom) / 1e9;
+        new LoadReport(config, stats, measuredSeconds).write(config.getOutputDir());
+    }
+
+    private void seedCustomers(int customers) throws IOException, InterruptedException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < customers; i++) {
+            ndjson.append("{\"name\":\"Customer").append(i).append("\",\"email\":\"customer").append(i).append("@loadtest.local\",\"accounts\":[")
+                    .append("{\"type\":\"CurrentAccount\",\"balance\":100000,\"overDraft\":5000},")
+                    .append("{\"type\":\"SavingAccount\",\"balance\":100000,\"interestRate\":3.5}]}\n");
+        }
+        client.importCustomers(ndjson.toString());
+        System.out.printf("Seeded %d customers%n", customers);
+    }
+
+    private void runClient(long measureFrom, long end) {
+        long start;
+        while ((start = System.nanoTime()) < end) {
+            Operation operation = nextOperation();
+            String outcome;
+            boolean error;
+            try {
+                int status = execute(operation);
+                outcome = String.valueOf(status);
+                error = status >= 400;
+            } catch (IOException e) {
+                outcome = e.getClass().getSimpleName();
+                error = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (start >= measureFrom) {
+                stats.get(operation).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), outcome, error);
+            }
+        }
+    }
+
+    private int execute(Operation operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case GET_BANK_ACCOUNT -> client.getBankAccount(hotAccount());
+            case PAGE_OPERATIONS -> client.pageOperations(hotAccount(), random.nextInt(3), config.getPageSize());
+            case DEBIT -> client.debit(hotAccount(), amount());
+            case CREDIT -> client.credit(hotAccount(), amount());
+            case TRANSFER -> {
+                int source = zipf.sample();
+                int destination = zipf.sample();
+                if (destination == source) {
+                    destination = (source + 1) % accountIds.size();
+                }
+                yield client.transfer(accountIds.get(source), accountIds.get(destination), amount());
+            }
+            case SEARCH_CUSTOMERS -> client.searchCustomers(keywords.isEmpty() ? "" : keywords.get(random.nextInt(keywords.size())));
+        };
+    }
+
+    private Operation nextOperation() {
+        int target = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private String hotAccount() {
+        return accountIds.get(zipf.sample());
+    }
+
+    private double amount() {
+        return Math.round(ThreadLocalRandom.current().nextDouble(1, config.getMaxAmount()) * 100) / 100.0;
+    }
+}
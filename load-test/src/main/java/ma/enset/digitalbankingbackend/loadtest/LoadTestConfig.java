@@ -0,0 +1,112 @@
+package ma.enset.digitalbankingbackend.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Defaults come from load-test.properties; system properties and key=value arguments override them.
+ * Credentials are not kept in the file: they come from LOAD_TEST_USERNAME and LOAD_TEST_PASSWORD
+ * unless passed as username=... and password=... arguments.
+ */
+public class LoadTestConfig {
+    private final Properties properties = new Properties();
+
+    public LoadTestConfig(String[] args) throws IOException {
+        try (InputStream input = LoadTestConfig.class.getResourceAsStream("/load-test.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        }
+        properties.stringPropertyNames().forEach(key -> {
+            String override = System.getProperty(key);
+            if (override != null) {
+                properties.setProperty(key, override);
+            }
+        });
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            properties.setProperty(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+    }
+
+    public String getBaseUrl() {
+        return properties.getProperty("base-url");
+    }
+
+    public String getUsername() {
+        return credential("username", "LOAD_TEST_USERNAME");
+    }
+
+    public String getPassword() {
+        return credential("password", "LOAD_TEST_PASSWORD");
+    }
+
+    public int getClients() {
+        return Integer.parseInt(properties.getProperty("clients"));
+    }
+
+    public int getWarmupSeconds() {
+        return Integer.parseInt(properties.getProperty("warmup-seconds"));
+    }
+
+    public int getDurationSeconds() {
+        return Integer.parseInt(properties.getProperty("duration-seconds"));
+    }
+
+    public double getZipfExponent() {
+        return Double.parseDouble(properties.getProperty("zipf-exponent"));
+    }
+
+    public double getMaxAmount() {
+        return Double.parseDouble(properties.getProperty("max-amount"));
+    }
+
+    public int getPageSize() {
+        return Integer.parseInt(properties.getProperty("page-size"));
+    }
+
+    public int getSeedCustomers() {
+        return Integer.parseInt(properties.getProperty("seed-customers"));
+    }
+
+    public int getWireFormatPageSize() {
+        return Integer.parseInt(properties.getProperty("wire-format.page-size"));
+    }
+
+    public int getWireFormatRounds() {
+        return Integer.parseInt(properties.getProperty("wire-format.rounds"));
+    }
+
+    public Path getOutputDir() {
+        return Path.of(properties.getProperty("output-dir"));
+    }
+
+    public Map<Operation, Integer> getMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            int weight = Integer.parseInt(properties.getProperty("mix." + operation.getKey(), "0"));
+            if (weight > 0) {
+                mix.put(operation, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The workload mix has no operation with a positive weight");
+        }
+        return mix;
+    }
+
+    private String credential(String key, String variable) {
+        String value = properties.getProperty(key, System.getenv(variable));
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Set " + variable + " or pass " + key + "=...");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,20 @@
+package ma.enset.digitalbankingbackend.loadtest;
+
+public enum Operation {
+    GET_BANK_ACCOUNT("getBankAccount"),
+    PAGE_OPERATIONS("pageOperations"),
+    DEBIT("debit"),
+    CREDIT("credit"),
+    TRANSFER("transfer"),
+    SEARCH_CUSTOMERS("searchCustomers");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
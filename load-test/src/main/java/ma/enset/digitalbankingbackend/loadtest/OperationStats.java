@@ -0,0 +1,47 @@
+package ma.enset.digitalbankingbackend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies in microseconds and outcome counts for one operation. An outcome is the HTTP status
+ * code, or the exception name when no response came back.
+ */
+public class OperationStats {
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    public void record(long latencyMicros, String outcome, boolean error) {
+        latencies.recordValue(latencyMicros);
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public Map<String, Long> getOutcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,44 @@
+package ma.enset.digitalbankingbackend.loadtest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the JSON and CBOR encodings of one large operations page over HTTP: response size and
+ * median round-trip time, after a warm-up of the same number of rounds.
+ * <p>
+ * {@code mvn -f load-test/pom.xml compile exec:java -Dexec.mainClass=ma.enset.digitalbankingbackend.loadtest.WireFormatBenchmark}
+ */
+public class WireFormatBenchmark {
+    private static final List<String> MEDIA_TYPES = List.of("application/json", "application/cbor");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig(args);
+        BankingClient client = new BankingClient(config.getBaseUrl(), config.getUsername(), config.getPassword());
+        client.login();
+        List<String> accountIds = client.accountIds();
+        if (accountIds.isEmpty()) {
+            throw new IllegalStateException("The benchmark needs at least one account");
+        }
+        String accountId = accountIds.get(0);
+        int pageSize = config.getWireFormatPageSize();
+        int rounds = config.getWireFormatRounds();
+        System.out.printf("Account %s, page of %d operations, %d rounds against %s%n", accountId, pageSize, rounds, config.getBaseUrl());
+        for (String mediaType : MEDIA_TYPES) {
+            for (int i = 0; i < rounds; i++) {
+                client.pageOperations(accountId, 0, pageSize, mediaType);
+            }
+            long[] nanos = new long[rounds];
+            int bytes = 0;
+            for (int i = 0; i < rounds; i++) {
+                long start = System.nanoTime();
+                bytes = client.pageOperations(accountId, 0, pageSize, mediaType).length;
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%-18s %10d bytes %9.2f ms p50 %9.2f ms max%n", mediaType, bytes,
+                    nanos[rounds / 2] / 1_000_000.0, nanos[rounds - 1] / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ma.enset.digitalbankingbackend.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent, so a few hot
+ * accounts receive most of the traffic.
+ */
+public class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int size, double exponent) {
+        cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+    }
+
+    public int sample() {
+        double target = ThreadLocalRandom.current().nextDouble(cumulative[cumulative.length - 1]);
+        int index = Arrays.binarySearch(cumulative, target);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+}
@@ -18,7 +18,9 @@ import ma.enset.digitalbankingbackend.services.BankService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.Date;
 import java.util.List;
@@ -26,13 +28,15 @@ import java.util.UUID;
 import java.util.stream.Stream;
 
 @SpringBootApplication
+@EnableScheduling
 public class DigitalBankingBackendApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(DigitalBankingBackendApplication.class, args);
     }
 
-     @Bean
+    @Bean
+    @ConditionalOnProperty(name = "bank.seed.enabled", havingValue = "true", matchIfMissing = true)
     CommandLineRunner commandLineRunner(BankAccountService bankAccountService) {
         return args -> {
             Stream.of("Hassan", "Yassine", "Aicha")
@@ -0,0 +1,21 @@
+package ma.enset.digitalbankingbackend.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "bank.datasource")
+public class ReplicaDataSourceProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    private long readYourWritesWindow = 2000;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,115 @@
+package ma.enset.digitalbankingbackend.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round-robin) and everything else to the primary.
+ * A client that committed a write is pinned to the primary for {@code readYourWritesWindow} ms so it
+ * never reads a replica that has not caught up yet. Writes are remembered in this node's memory only,
+ * so the guarantee holds for requests served by the same node; behind a load balancer that needs
+ * sticky sessions. Writes without an authenticated principal (scheduled jobs, anonymous calls) are
+ * not tracked. Must be wrapped in a LazyConnectionDataSourceProxy,
+ * otherwise the connection is fetched before the transaction's read-only flag is known.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Set<String> healthyReplicas = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long readYourWritesWindow;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long readYourWritesWindow) {
+        this.replicas = replicas;
+        this.replicaKeys = new ArrayList<>(replicas.keySet());
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.healthyReplicas.addAll(replicaKeys);
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerWrite();
+            return PRIMARY;
+        }
+        String client = currentClient();
+        Long lastWrite = client == null ? null : lastWrites.get(client);
+        if (lastWrite != null && System.currentTimeMillis() - lastWrite < readYourWritesWindow) {
+            return PRIMARY;
+        }
+        for (int i = 0; i < replicaKeys.size(); i++) {
+            String key = replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+            if (healthyReplicas.contains(key)) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${bank.datasource.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        replicas.forEach((key, dataSource) -> {
+            boolean healthy;
+            try (Connection connection = dataSource.getConnection()) {
+                healthy = connection.isValid(1);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy && healthyReplicas.add(key)) {
+                log.info("Replica {} is back in rotation", key);
+            } else if (!healthy && healthyReplicas.remove(key)) {
+                log.warn("Replica {} failed its health check, routing its reads to the primary", key);
+            }
+        });
+        long expired = System.currentTimeMillis() - readYourWritesWindow;
+        lastWrites.values().removeIf(lastWrite -> lastWrite < expired);
+    }
+
+    private void registerWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String client = currentClient();
+        if (client == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(client, System.currentTimeMillis());
+            }
+        });
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
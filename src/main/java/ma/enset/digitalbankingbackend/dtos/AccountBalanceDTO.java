@@ -0,0 +1,14 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceDTO {
+    private String id;
+    private double balance;
+    private String currency;
+}
@@ -1,17 +1,21 @@
 package ma.enset.digitalbankingbackend.dtos;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ma.enset.digitalbankingbackend.entities.BankAccount;
 import ma.enset.digitalbankingbackend.enums.OperationType;
 import java.util.Date;
 
 
 @Data
-
+@NoArgsConstructor
+@AllArgsConstructor
 public class AccountOperationDTO {
     private Long id;
     private Date operationDate;
     private double amount;
     private OperationType type;
     private String description;
+    private String currency;
 }
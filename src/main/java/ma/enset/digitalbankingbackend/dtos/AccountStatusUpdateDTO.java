@@ -0,0 +1,13 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.Data;
+import ma.enset.digitalbankingbackend.enums.AccountStatus;
+
+import java.util.List;
+
+@Data
+public class AccountStatusUpdateDTO {
+    private List<String> accountIds;
+    private AccountStatus status;
+    private int updated;
+}
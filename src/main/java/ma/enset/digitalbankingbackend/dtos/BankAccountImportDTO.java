@@ -0,0 +1,12 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.Data;
+
+@Data
+public class BankAccountImportDTO {
+    private String type;
+    private double balance;
+    private String currency;
+    private double overDraft;
+    private double interestRate;
+}
@@ -10,6 +10,7 @@ import java.util.Date;
 public class CurrentBankAccountDTO extends BankAccountDTO {
     private String id;
     private double balance;
+    private String currency;
     private Date createdAt;
     private AccountStatus status;
     private CustomerDTO customerDTO;
@@ -0,0 +1,12 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CustomerImportDTO {
+    private String name;
+    private String email;
+    private List<BankAccountImportDTO> accounts;
+}
@@ -0,0 +1,11 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CustomerPortfolioDTO {
+    private CustomerDTO customerDTO;
+    private List<PortfolioAccountDTO> accounts;
+}
@@ -0,0 +1,18 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyOperationTotalsDTO {
+    private LocalDate day;
+    private double debitTotal;
+    private long debitCount;
+    private double creditTotal;
+    private long creditCount;
+}
@@ -0,0 +1,15 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.Data;
+
+@Data
+public class ImportReportDTO {
+    private long linesRead;
+    private long customersImported;
+    private long accountsImported;
+    private long rejected;
+    private long lastCommittedLine;
+    private boolean completed;
+    private String error;
+    private double rowsPerSecond;
+}
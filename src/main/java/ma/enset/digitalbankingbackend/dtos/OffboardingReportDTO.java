@@ -0,0 +1,13 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.Data;
+
+@Data
+public class OffboardingReportDTO {
+    private Long customerId;
+    private Long transferredTo;
+    private long accounts;
+    private long archivedOperations;
+    private long cancelledStandingOrders;
+    private long durationMillis;
+}
@@ -0,0 +1,20 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperationRollupRowDTO {
+    private Long id;
+    private String accountId;
+    private Long customerId;
+    private Date operationDate;
+    private OperationType type;
+    private double amount;
+}
@@ -0,0 +1,11 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PortfolioAccountDTO {
+    private BankAccountDTO bankAccountDTO;
+    private List<AccountOperationDTO> lastOperations;
+}
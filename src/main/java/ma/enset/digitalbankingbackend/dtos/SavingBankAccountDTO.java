@@ -9,6 +9,7 @@ import java.util.Date;
 public class SavingBankAccountDTO extends BankAccountDTO {
     private String id;
     private double balance;
+    private String currency;
     private Date createdAt;
     private AccountStatus status;
     private CustomerDTO customerDTO;
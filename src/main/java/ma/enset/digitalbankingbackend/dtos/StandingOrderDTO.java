@@ -0,0 +1,22 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.Data;
+import ma.enset.digitalbankingbackend.enums.StandingOrderFrequency;
+import ma.enset.digitalbankingbackend.enums.StandingOrderStatus;
+
+import java.util.Date;
+
+@Data
+public class StandingOrderDTO {
+    private Long id;
+    private String sourceAccountId;
+    private String destinationAccountId;
+    private double amount;
+    private String description;
+    private StandingOrderFrequency frequency;
+    private Date nextExecution;
+    private Date endDate;
+    private StandingOrderStatus status;
+    private int attempts;
+    private String lastError;
+}
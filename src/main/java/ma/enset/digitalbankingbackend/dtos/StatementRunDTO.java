@@ -0,0 +1,12 @@
+package ma.enset.digitalbankingbackend.dtos;
+
+import lombok.Data;
+
+@Data
+public class StatementRunDTO {
+    private String month;
+    private long generated;
+    private long skipped;
+    private long failed;
+    private double statementsPerMinute;
+}
@@ -0,0 +1,28 @@
+package ma.enset.digitalbankingbackend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(indexes = {
+        @Index(columnList = "account_id, operation_day", unique = true),
+        @Index(columnList = "customer_id, operation_day")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountDailyRollup {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String accountId;
+    private Long customerId;
+    private LocalDate operationDay;
+    private double debitTotal;
+    private long debitCount;
+    private double creditTotal;
+    private long creditCount;
+}
@@ -8,6 +8,7 @@ import ma.enset.digitalbankingbackend.enums.OperationType;
 import java.util.Date;
 
 @Entity
+@Table(indexes = @Index(columnList = "bank_account_id, operation_date"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,6 +17,7 @@ public class AccountOperation {
     private Long id;
     private Date operationDate;
     private double amount;
+    private String currency;
     @Enumerated(EnumType.STRING)
     private OperationType type;
     @ManyToOne
@@ -0,0 +1,21 @@
+package ma.enset.digitalbankingbackend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(indexes = @Index(columnList = "account_id, segment_month", unique = true))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedOperationSegment {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String accountId;
+    private String segmentMonth;
+    private long operationCount;
+    private double netAmount;
+    private String path;
+}
@@ -19,9 +19,11 @@ public class BankAccount {
     @Id
     private String id;
     private double balance;
+    private String currency;
     private Date createdAt;
     @Enumerated(EnumType.STRING)
     private AccountStatus status;
+    private Date statusChangedAt;
 
     @ManyToOne
     private Customer customer;
@@ -17,6 +17,8 @@ public class Customer {
     private Long id;
     private String name;
     private String email;
+    @Version
+    private long version;
 
     @OneToMany(mappedBy = "customer")
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
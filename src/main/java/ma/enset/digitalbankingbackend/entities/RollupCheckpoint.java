@@ -0,0 +1,17 @@
+package ma.enset.digitalbankingbackend.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupCheckpoint {
+    @Id
+    private String name;
+    private Long lastOperationId;
+}
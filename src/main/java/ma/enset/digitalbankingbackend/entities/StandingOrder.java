@@ -0,0 +1,37 @@
+package ma.enset.digitalbankingbackend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ma.enset.digitalbankingbackend.enums.StandingOrderFrequency;
+import ma.enset.digitalbankingbackend.enums.StandingOrderStatus;
+
+import java.util.Date;
+
+@Entity
+@Table(indexes = {
+        @Index(columnList = "status, due_at"),
+        @Index(columnList = "source_account_id")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StandingOrder {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String sourceAccountId;
+    private String destinationAccountId;
+    private double amount;
+    private String description;
+    @Enumerated(EnumType.STRING)
+    private StandingOrderFrequency frequency;
+    private Date nextExecution;
+    private Date dueAt;
+    private Date endDate;
+    private int dayOfMonth;
+    @Enumerated(EnumType.STRING)
+    private StandingOrderStatus status;
+    private int attempts;
+    private String lastError;
+}
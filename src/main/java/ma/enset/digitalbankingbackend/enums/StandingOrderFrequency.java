@@ -0,0 +1,5 @@
+package ma.enset.digitalbankingbackend.enums;
+
+public enum StandingOrderFrequency {
+    DAILY, WEEKLY, MONTHLY
+}
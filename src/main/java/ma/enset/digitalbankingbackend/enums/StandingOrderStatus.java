@@ -0,0 +1,5 @@
+package ma.enset.digitalbankingbackend.enums;
+
+public enum StandingOrderStatus {
+    ACTIVE, COMPLETED, CANCELLED, FAILED
+}
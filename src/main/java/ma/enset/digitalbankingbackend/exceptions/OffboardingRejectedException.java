@@ -0,0 +1,11 @@
+package ma.enset.digitalbankingbackend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class OffboardingRejectedException extends Exception {
+    public OffboardingRejectedException(String message) {
+        super(message);
+    }
+}
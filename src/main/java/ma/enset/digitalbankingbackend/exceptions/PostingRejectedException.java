@@ -0,0 +1,7 @@
+package ma.enset.digitalbankingbackend.exceptions;
+
+public class PostingRejectedException extends Exception {
+    public PostingRejectedException(String message) {
+        super(message);
+    }
+}
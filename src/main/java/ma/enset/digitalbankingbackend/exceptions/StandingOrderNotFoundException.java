@@ -0,0 +1,7 @@
+package ma.enset.digitalbankingbackend.exceptions;
+
+public class StandingOrderNotFoundException extends Exception {
+    public StandingOrderNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,13 +1,17 @@
 package ma.enset.digitalbankingbackend.mappers;
 
 import ma.enset.digitalbankingbackend.dtos.AccountOperationDTO;
+import ma.enset.digitalbankingbackend.dtos.BankAccountDTO;
 import ma.enset.digitalbankingbackend.dtos.CurrentBankAccountDTO;
 import ma.enset.digitalbankingbackend.dtos.CustomerDTO;
 import ma.enset.digitalbankingbackend.dtos.SavingBankAccountDTO;
+import ma.enset.digitalbankingbackend.dtos.StandingOrderDTO;
 import ma.enset.digitalbankingbackend.entities.AccountOperation;
+import ma.enset.digitalbankingbackend.entities.BankAccount;
 import ma.enset.digitalbankingbackend.entities.CurrentAccount;
 import ma.enset.digitalbankingbackend.entities.Customer;
 import ma.enset.digitalbankingbackend.entities.SavingAccount;
+import ma.enset.digitalbankingbackend.entities.StandingOrder;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
@@ -55,9 +59,22 @@ public class BankAccountMapperImpl {
         return currentAccount;
     }
 
+    public BankAccountDTO fromBankAccount(BankAccount bankAccount){
+        if(bankAccount instanceof SavingAccount) {
+            return fromSavingBankAccount((SavingAccount) bankAccount);
+        }
+        return fromCurrentBankAccount((CurrentAccount) bankAccount);
+    }
+
     public AccountOperationDTO fromAccountOperation(AccountOperation accountOperation){
         AccountOperationDTO accountOperationDTO = new AccountOperationDTO();
         BeanUtils.copyProperties(accountOperation, accountOperationDTO);
         return accountOperationDTO;
     }
+
+    public StandingOrderDTO fromStandingOrder(StandingOrder standingOrder){
+        StandingOrderDTO standingOrderDTO = new StandingOrderDTO();
+        BeanUtils.copyProperties(standingOrder, standingOrderDTO);
+        return standingOrderDTO;
+    }
 }
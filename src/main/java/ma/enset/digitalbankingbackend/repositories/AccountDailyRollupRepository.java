@@ -0,0 +1,34 @@
+package ma.enset.digitalbankingbackend.repositories;
+
+import ma.enset.digitalbankingbackend.dtos.DailyOperationTotalsDTO;
+import ma.enset.digitalbankingbackend.entities.AccountDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountDailyRollupRepository extends JpaRepository<AccountDailyRollup, Long> {
+
+    Optional<AccountDailyRollup> findByAccountIdAndOperationDay(String accountId, LocalDate operationDay);
+
+    @Query("select new ma.enset.digitalbankingbackend.dtos.DailyOperationTotalsDTO(r.operationDay, r.debitTotal, r.debitCount, r.creditTotal, r.creditCount) " +
+            "from AccountDailyRollup r where r.accountId = :accountId and r.operationDay between :from and :to order by r.operationDay")
+    List<DailyOperationTotalsDTO> findAccountTotals(@Param("accountId") String accountId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new ma.enset.digitalbankingbackend.dtos.DailyOperationTotalsDTO(r.operationDay, sum(r.debitTotal), sum(r.debitCount), sum(r.creditTotal), sum(r.creditCount)) " +
+            "from AccountDailyRollup r where r.customerId = :customerId and r.operationDay between :from and :to " +
+            "group by r.operationDay order by r.operationDay")
+    List<DailyOperationTotalsDTO> findCustomerTotals(@Param("customerId") Long customerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("update AccountDailyRollup r set r.customerId = :toCustomerId where r.customerId = :customerId")
+    int moveToCustomer(@Param("customerId") Long customerId, @Param("toCustomerId") Long toCustomerId);
+
+    @Modifying
+    @Query("delete from AccountDailyRollup r where r.accountId in :accountIds")
+    int deleteInBulkByAccountIds(@Param("accountIds") List<String> accountIds);
+}
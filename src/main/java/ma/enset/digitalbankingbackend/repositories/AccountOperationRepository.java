@@ -1,14 +1,45 @@
 package ma.enset.digitalbankingbackend.repositories;
 
+import ma.enset.digitalbankingbackend.dtos.AccountOperationDTO;
+import ma.enset.digitalbankingbackend.dtos.OperationRollupRowDTO;
 import ma.enset.digitalbankingbackend.entities.AccountOperation;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AccountOperationRepository extends JpaRepository<AccountOperation, Long> {
 
     List<AccountOperation> findByBankAccountId(String accountId);
     Page<AccountOperation> findByBankAccountId(String accountId, Pageable pageable);
+    long countByBankAccountId(String accountId);
+
+    @Query(value = "select * from account_operation where bank_account_id = :accountId order by id limit :limit offset :offset", nativeQuery = true)
+    List<AccountOperation> findByBankAccountIdOrderById(@Param("accountId") String accountId, @Param("offset") long offset, @Param("limit") int limit);
+
+    @Query("select new ma.enset.digitalbankingbackend.dtos.AccountOperationDTO(o.id, o.operationDate, o.amount, o.type, o.description, o.currency) " +
+            "from AccountOperation o where o.bankAccount.id = :accountId and o.operationDate >= :from and o.operationDate < :to " +
+            "order by o.operationDate, o.id")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    Stream<AccountOperationDTO> streamByBankAccountIdAndPeriod(@Param("accountId") String accountId, @Param("from") Date from, @Param("to") Date to);
+
+    @Query(value = "select t.id, t.operation_date, t.amount, t.currency, t.type, t.description, t.bank_account_id from (" +
+            "select o.*, row_number() over (partition by o.bank_account_id order by o.operation_date desc, o.id desc) as rn " +
+            "from account_operation o where o.bank_account_id in (:accountIds)) t where t.rn <= :limit", nativeQuery = true)
+    List<AccountOperation> findLatestByBankAccountIds(@Param("accountIds") List<String> accountIds, @Param("limit") int limit);
+
+    @Query("select new ma.enset.digitalbankingbackend.dtos.OperationRollupRowDTO(o.id, b.id, c.id, o.operationDate, o.type, o.amount) " +
+            "from AccountOperation o join o.bankAccount b left join b.customer c where o.id > :lastId order by o.id")
+    List<OperationRollupRowDTO> findRollupRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("select coalesce(sum(case when o.type = ma.enset.digitalbankingbackend.enums.OperationType.DEBIT then -o.amount else o.amount end), 0) " +
+            "from AccountOperation o where o.bankAccount.id = :accountId and o.operationDate >= :from")
+    double sumNetAmountSince(@Param("accountId") String accountId, @Param("from") Date from);
 }
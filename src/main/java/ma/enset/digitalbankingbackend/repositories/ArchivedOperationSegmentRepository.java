@@ -0,0 +1,22 @@
+package ma.enset.digitalbankingbackend.repositories;
+
+import ma.enset.digitalbankingbackend.entities.ArchivedOperationSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedOperationSegmentRepository extends JpaRepository<ArchivedOperationSegment, Long> {
+
+    List<ArchivedOperationSegment> findByAccountIdOrderBySegmentMonth(String accountId);
+
+    Optional<ArchivedOperationSegment> findByAccountIdAndSegmentMonth(String accountId, String segmentMonth);
+
+    @Query("select coalesce(sum(s.operationCount), 0) from ArchivedOperationSegment s where s.accountId = :accountId")
+    long countOperations(@Param("accountId") String accountId);
+
+    @Query("select coalesce(sum(s.netAmount), 0) from ArchivedOperationSegment s where s.accountId = :accountId and s.segmentMonth >= :fromMonth")
+    double sumNetAmountFrom(@Param("accountId") String accountId, @Param("fromMonth") String fromMonth);
+}
@@ -1,7 +1,78 @@
 package ma.enset.digitalbankingbackend.repositories;
 
+import jakarta.persistence.LockModeType;
+import ma.enset.digitalbankingbackend.dtos.AccountBalanceDTO;
 import ma.enset.digitalbankingbackend.entities.BankAccount;
+import ma.enset.digitalbankingbackend.entities.Customer;
+import ma.enset.digitalbankingbackend.enums.AccountStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BankAccountRepository extends JpaRepository<BankAccount, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from BankAccount b where b.id = :id")
+    Optional<BankAccount> findForUpdate(@Param("id") String id);
+
+    @Query("select new ma.enset.digitalbankingbackend.dtos.AccountBalanceDTO(b.id, b.balance, b.currency) from BankAccount b where b.id > :lastId order by b.id")
+    List<AccountBalanceDTO> findAccountBalances(@Param("lastId") String lastId, Pageable pageable);
+
+    @Query("select new ma.enset.digitalbankingbackend.dtos.AccountBalanceDTO(b.id, b.balance, b.currency) from BankAccount b where b.id = :id")
+    Optional<AccountBalanceDTO> findAccountBalance(@Param("id") String id);
+
+    @Query("select b.id from BankAccount b where b.id > :lastId order by b.id")
+    List<String> findIdsAfter(@Param("lastId") String lastId, Pageable pageable);
+
+    @Query("select concat(coalesce(cast(b.status as String), ''), '-', cast(coalesce(max(o.id), 0) as String), '-', " +
+            "coalesce(cast(c.id as String), ''), '-', coalesce(cast(c.version as String), '')) " +
+            "from BankAccount b left join b.customer c left join b.accountOperations o where b.id = :id group by b.id, b.status, c.id, c.version")
+    Optional<String> findVersionById(@Param("id") String id);
+
+    @Query("select concat(b.id, ':', cast(b.balance as String), ':', coalesce(cast(b.status as String), ''), ':', coalesce(b.currency, ''), ':', " +
+            "coalesce(cast(c.id as String), ''), ':', coalesce(cast(c.version as String), '')) " +
+            "from BankAccount b left join b.customer c order by b.id")
+    Stream<String> streamVersions();
+
+    @Modifying
+    @Query("update BankAccount b set b.balance = b.balance + :delta where b.id = :id")
+    int addToBalance(@Param("id") String id, @Param("delta") double delta);
+
+    @Query("select b.status from BankAccount b where b.id = :id")
+    Optional<AccountStatus> findStatusById(@Param("id") String id);
+
+    @Modifying
+    @Query("update BankAccount b set b.status = :status, b.statusChangedAt = :changedAt where b.id in :ids and (b.status is null or b.status <> :status)")
+    int updateStatus(@Param("ids") List<String> ids, @Param("status") AccountStatus status, @Param("changedAt") Date changedAt);
+
+    @Query("select b.id from BankAccount b where b.id > :lastId and (:upperId is null or b.id <= :upperId) " +
+            "and (b.status is null or b.status <> ma.enset.digitalbankingbackend.enums.AccountStatus.SUSPENDED) and b.createdAt < :cutoff " +
+            "and (b.statusChangedAt is null or b.statusChangedAt < :cutoff) " +
+            "and not exists (select o.id from AccountOperation o where o.bankAccount = b and o.operationDate >= :cutoff) " +
+            "and not exists (select s.id from ArchivedOperationSegment s where s.accountId = b.id and s.segmentMonth >= :cutoffMonth) " +
+            "order by b.id")
+    List<String> findDormantIds(@Param("lastId") String lastId, @Param("upperId") String upperId, @Param("cutoff") Date cutoff,
+                                @Param("cutoffMonth") String cutoffMonth, Pageable pageable);
+
+    @Query("select b.id from BankAccount b where b.customer.id = :customerId")
+    List<String> findIdsByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("select count(b) from BankAccount b where b.customer.id = :customerId and b.balance <> 0")
+    long countFundedByCustomerId(@Param("customerId") Long customerId);
+
+    @Modifying
+    @Query("update BankAccount b set b.customer = :customer where b.customer.id = :customerId")
+    int moveToCustomer(@Param("customerId") Long customerId, @Param("customer") Customer customer);
+
+    @Modifying
+    @Query("delete from BankAccount b where b.customer.id = :customerId")
+    int deleteInBulkByCustomerId(@Param("customerId") Long customerId);
 }
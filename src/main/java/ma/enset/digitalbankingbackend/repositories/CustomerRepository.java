@@ -2,9 +2,27 @@ package ma.enset.digitalbankingbackend.repositories;
 
 import ma.enset.digitalbankingbackend.entities.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByNameContains(String keyword);
+
+    @Query("select distinct c from Customer c left join fetch c.bankAccounts where c.id = :id")
+    Optional<Customer> findWithBankAccountsById(@Param("id") Long id);
+
+    @Query("select c.version from Customer c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select concat(cast(c.id as String), ':', cast(c.version as String)) from Customer c order by c.id")
+    Stream<String> streamVersions();
+
+    @Modifying
+    @Query("delete from Customer c where c.id = :id")
+    int deleteInBulkById(@Param("id") Long id);
 }
@@ -0,0 +1,17 @@
+package ma.enset.digitalbankingbackend.repositories;
+
+import jakarta.persistence.LockModeType;
+import ma.enset.digitalbankingbackend.entities.RollupCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RollupCheckpointRepository extends JpaRepository<RollupCheckpoint, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from RollupCheckpoint c where c.name = :name")
+    Optional<RollupCheckpoint> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,33 @@
+package ma.enset.digitalbankingbackend.repositories;
+
+import jakarta.persistence.LockModeType;
+import ma.enset.digitalbankingbackend.entities.StandingOrder;
+import ma.enset.digitalbankingbackend.enums.StandingOrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface StandingOrderRepository extends JpaRepository<StandingOrder, Long> {
+
+    List<StandingOrder> findBySourceAccountId(String sourceAccountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StandingOrder s where s.id = :id")
+    Optional<StandingOrder> findForUpdate(@Param("id") Long id);
+
+    @Query("select s from StandingOrder s where s.status = :status and s.dueAt < :until and s.id > :lastId order by s.id")
+    List<StandingOrder> findDue(@Param("status") StandingOrderStatus status, @Param("until") Date until, @Param("lastId") Long lastId, Pageable pageable);
+
+    @Modifying
+    @Query("update StandingOrder s set s.status = ma.enset.digitalbankingbackend.enums.StandingOrderStatus.CANCELLED " +
+            "where (s.sourceAccountId in :accountIds or s.destinationAccountId in :accountIds) " +
+            "and s.status = ma.enset.digitalbankingbackend.enums.StandingOrderStatus.ACTIVE")
+    int cancelByAccountIds(@Param("accountIds") List<String> accountIds);
+}
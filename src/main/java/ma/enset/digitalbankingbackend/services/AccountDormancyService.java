@@ -0,0 +1,104 @@
+package ma.enset.digitalbankingbackend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class AccountDormancyService {
+    private static final int RANGES = 16;
+
+    private final AccountStatusService accountStatusService;
+    private final BankAccountRepository bankAccountRepository;
+    private final int dormantMonths;
+    private final int workers;
+    private final int pageSize;
+
+    public AccountDormancyService(AccountStatusService accountStatusService, BankAccountRepository bankAccountRepository,
+                                  @Value("${bank.dormancy.months:12}") int dormantMonths,
+                                  @Value("${bank.dormancy.workers:4}") int workers,
+                                  @Value("${bank.dormancy.page-size:1000}") int pageSize) {
+        this.accountStatusService = accountStatusService;
+        this.bankAccountRepository = bankAccountRepository;
+        this.dormantMonths = dormantMonths;
+        this.workers = workers;
+        this.pageSize = pageSize;
+    }
+
+    @Scheduled(cron = "${bank.dormancy.cron:0 0 4 * * *}")
+    public synchronized long suspendDormantAccounts() throws InterruptedException {
+        LocalDate cutoffDay = LocalDate.now().minusMonths(dormantMonths);
+        Date cutoff = Date.from(cutoffDay.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        String cutoffMonth = YearMonth.from(cutoffDay).toString();
+        AtomicLong suspended = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<String> bounds = rangeBounds();
+            List<Future<?>> ranges = new ArrayList<>();
+            for (int i = 0; i <= bounds.size(); i++) {
+                String lowerId = i == 0 ? "" : bounds.get(i - 1);
+                String upperId = i == bounds.size() ? null : bounds.get(i);
+                ranges.add(executor.submit(() -> scanRange(lowerId, upperId, cutoff, cutoffMonth, suspended)));
+            }
+            for (Future<?> range : ranges) {
+                try {
+                    range.get();
+                } catch (ExecutionException e) {
+                    log.error("Dormancy scan failed for a range", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        log.info("Suspended {} accounts without operations since {}", suspended.get(), cutoffDay);
+        return suspended.get();
+    }
+
+    /**
+     * Splits the ids at evenly spaced positions of the table's own ordering, whatever their format.
+     * Range i covers ids above bound i - 1 up to and including bound i; the first and last are open.
+     */
+    private List<String> rangeBounds() {
+        long accounts = bankAccountRepository.count();
+        List<String> bounds = new ArrayList<>(RANGES - 1);
+        for (int i = 1; i < RANGES; i++) {
+            long offset = accounts * i / RANGES;
+            if (offset == 0) {
+                continue;
+            }
+            List<String> id = bankAccountRepository.findIdsAfter("", PageRequest.of((int) offset - 1, 1));
+            if (!id.isEmpty() && (bounds.isEmpty() || !bounds.get(bounds.size() - 1).equals(id.get(0)))) {
+                bounds.add(id.get(0));
+            }
+        }
+        return bounds;
+    }
+
+    private void scanRange(String lowerId, String upperId, Date cutoff, String cutoffMonth, AtomicLong suspended) {
+        String lastId = lowerId;
+        List<String> accountIds;
+        do {
+            accountIds = accountStatusService.suspendDormant(lastId, upperId, cutoff, cutoffMonth, pageSize);
+            suspended.addAndGet(accountIds.size());
+            if (!accountIds.isEmpty()) {
+                lastId = accountIds.get(accountIds.size() - 1);
+            }
+        } while (accountIds.size() == pageSize);
+    }
+}
@@ -0,0 +1,111 @@
+package ma.enset.digitalbankingbackend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.enums.AccountStatus;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejects postings on suspended accounts. Statuses are cached per account; local changes invalidate
+ * the entry once committed, changes made by other instances are picked up when the entry expires.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class AccountStatusService implements PostingRule {
+    private record CachedStatus(AccountStatus status, long loadedAt) {
+    }
+
+    private final BankAccountRepository bankAccountRepository;
+    private final Map<String, CachedStatus> statuses = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final int chunkSize;
+
+    public AccountStatusService(BankAccountRepository bankAccountRepository,
+                                @Value("${bank.account-status.cache-ttl-ms:30000}") long ttlMillis,
+                                @Value("${bank.account-status.cache-size:100000}") int maxEntries,
+                                @Value("${bank.account-status.chunk-size:1000}") int chunkSize) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void check(String accountId, OperationType type, double amount) throws PostingRejectedException {
+        if (getStatus(accountId) == AccountStatus.SUSPENDED) {
+            throw new PostingRejectedException("Account " + accountId + " is suspended");
+        }
+    }
+
+    public AccountStatus getStatus(String accountId) {
+        long now = System.currentTimeMillis();
+        CachedStatus cached = statuses.get(accountId);
+        if (cached != null && now - cached.loadedAt() < ttlMillis) {
+            return cached.status();
+        }
+        AccountStatus status = bankAccountRepository.findStatusById(accountId).orElse(null);
+        if (cached != null || statuses.size() < maxEntries) {
+            statuses.put(accountId, new CachedStatus(status, now));
+        }
+        return status;
+    }
+
+    @Transactional
+    public int updateStatus(List<String> accountIds, AccountStatus status) {
+        int updated = 0;
+        Date changedAt = new Date();
+        for (int from = 0; from < accountIds.size(); from += chunkSize) {
+            updated += bankAccountRepository.updateStatus(accountIds.subList(from, Math.min(from + chunkSize, accountIds.size())), status, changedAt);
+        }
+        invalidateAfterCommit(accountIds);
+        log.info("{} of {} accounts set to {}", updated, accountIds.size(), status);
+        return updated;
+    }
+
+    @Transactional
+    public List<String> suspendDormant(String lastId, String upperId, Date cutoff, String cutoffMonth, int pageSize) {
+        List<String> accountIds = bankAccountRepository.findDormantIds(lastId, upperId, cutoff, cutoffMonth, PageRequest.of(0, pageSize));
+        if (!accountIds.isEmpty()) {
+            bankAccountRepository.updateStatus(accountIds, AccountStatus.SUSPENDED, new Date());
+            invalidateAfterCommit(accountIds);
+        }
+        return accountIds;
+    }
+
+    @Scheduled(fixedDelayString = "${bank.account-status.cache-ttl-ms:30000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        statuses.values().removeIf(cached -> now - cached.loadedAt() >= ttlMillis);
+    }
+
+    private void invalidateAfterCommit(Collection<String> accountIds) {
+        List<String> ids = List.copyOf(accountIds);
+        ids.forEach(statuses::remove);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(statuses::remove);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package ma.enset.digitalbankingbackend.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.dtos.AccountBalanceDTO;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.BankAccountNotFoundException;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+@ConditionalOnProperty(name = "bank.engine.enabled", havingValue = "true")
+@Slf4j
+public class BalanceEngine {
+    private final BankAccountRepository bankAccountRepository;
+    private final BalanceJournalWriter balanceJournalWriter;
+    private final PostingRuleChain postingRuleChain;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceEngineShard[] shards;
+    private final ExecutorService loader;
+    private final int warmUpPageSize;
+
+    public BalanceEngine(BankAccountRepository bankAccountRepository, BalanceJournalWriter balanceJournalWriter, PostingRuleChain postingRuleChain,
+                         FxRateService fxRateService, TransactionTemplate transactionTemplate,
+                         @Value("${bank.engine.shards:4}") int shardCount,
+                         @Value("${bank.engine.warm-up-page-size:10000}") int warmUpPageSize) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.balanceJournalWriter = balanceJournalWriter;
+        this.postingRuleChain = postingRuleChain;
+        this.fxRateService = fxRateService;
+        this.transactionTemplate = transactionTemplate;
+        this.warmUpPageSize = warmUpPageSize;
+        this.shards = new BalanceEngineShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new BalanceEngineShard("balance-shard-" + i);
+            shards[i].start();
+        }
+        this.loader = Executors.newFixedThreadPool(shardCount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        long loaded = 0;
+        String lastId = "";
+        List<AccountBalanceDTO> page;
+        do {
+            String after = lastId;
+            page = transactionTemplate.execute(status -> bankAccountRepository.findAccountBalances(after, PageRequest.of(0, warmUpPageSize)));
+            List<List<AccountBalanceDTO>> byShard = new ArrayList<>(shards.length);
+            for (int i = 0; i < shards.length; i++) {
+                byShard.add(new ArrayList<>());
+            }
+            for (AccountBalanceDTO account : page) {
+                byShard.get(shardIndex(account.getId())).add(account);
+            }
+            for (int i = 0; i < shards.length; i++) {
+                BalanceEngineShard shard = shards[i];
+                List<AccountBalanceDTO> accounts = byShard.get(i);
+                shard.submit(() -> accounts.forEach(a -> shard.load(a.getId(), a.getBalance(), fxRateService.currencyOrDefault(a.getCurrency()))));
+            }
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == warmUpPageSize);
+        log.info("Balance engine loaded {} accounts into {} shards in {} ms", loaded, shards.length, System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (BalanceEngineShard shard : shards) {
+            shard.stop();
+        }
+        loader.shutdownNow();
+    }
+
+    public CompletableFuture<Double> getBalance(String accountId) {
+        return onShard(accountId, shard -> shard.balance(accountId));
+    }
+
+    public CompletableFuture<String> getCurrency(String accountId) {
+        return onShard(accountId, shard -> shard.currency(accountId));
+    }
+
+    public CompletableFuture<Double> debit(String accountId, double amount, String description) {
+        return post(accountId, OperationType.DEBIT, amount, description, true);
+    }
+
+    public CompletableFuture<Double> credit(String accountId, double amount, String description) {
+        return post(accountId, OperationType.CREDIT, amount, description, true);
+    }
+
+    /**
+     * The destination is checked before the source is debited; if its credit is still refused
+     * afterwards (its status changed in between), the debit is reversed with a compensating credit
+     * and given back to the source's rules.
+     */
+    public CompletableFuture<Double> transfer(String accountIdSource, String accountIdDestination, double amount) {
+        return getCurrency(accountIdDestination)
+                .thenCombine(getCurrency(accountIdSource), (destinationCurrency, sourceCurrency) -> {
+                    try {
+                        return fxRateService.convert(amount, sourceCurrency, destinationCurrency);
+                    } catch (PostingRejectedException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .thenCompose(converted -> checkRules(accountIdDestination, OperationType.CREDIT, converted)
+                        .thenCompose(checked -> debit(accountIdSource, amount, "Transfer"))
+                        .thenCompose(sourceBalance -> credit(accountIdDestination, converted, "Transfer")
+                                .thenApply(destinationBalance -> sourceBalance)
+                                .exceptionallyCompose(failure -> post(accountIdSource, OperationType.CREDIT, amount, "Transfer reversal", false)
+                                        .thenCompose(reversed -> {
+                                            postingRuleChain.released(accountIdSource, OperationType.DEBIT, amount);
+                                            return CompletableFuture.<Double>failedFuture(failure);
+                                        }))));
+    }
+
+    /**
+     * Blocks until the journal has persisted every posting accepted so far, so the account rows
+     * and their operations reflect them.
+     */
+    public void awaitJournal() throws InterruptedException {
+        balanceJournalWriter.awaitJournaled(balanceJournalWriter.appendedCount());
+    }
+
+    /**
+     * Drops accounts whose rows were changed or deleted outside the engine (imports, offboarding).
+     * They are read again on next use, once the journal has persisted every posting made before.
+     * Inside a transaction the drop waits for the commit, so the reload cannot see the old rows.
+     */
+    public void invalidate(Collection<String> accountIds) {
+        if (accountIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(accountIds);
+                }
+            });
+        } else {
+            evict(accountIds);
+        }
+    }
+
+    private void evict(Collection<String> accountIds) {
+        List<List<String>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (String accountId : accountIds) {
+            byShard.get(shardIndex(accountId)).add(accountId);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            BalanceEngineShard shard = shards[i];
+            List<String> accounts = byShard.get(i);
+            if (!accounts.isEmpty()) {
+                shard.submit(() -> accounts.forEach(shard::evict));
+            }
+        }
+    }
+
+    private CompletableFuture<Void> checkRules(String accountId, OperationType type, double amount) {
+        return onShard(accountId, shard -> {
+            postingRuleChain.check(accountId, type, amount);
+            postingRuleChain.released(accountId, type, amount);
+            return null;
+        });
+    }
+
+    private CompletableFuture<Double> post(String accountId, OperationType type, double amount, String description, boolean checkRules) {
+        return onShard(accountId, shard -> {
+            if (type == OperationType.DEBIT) {
+                shard.ensureFunds(accountId, amount);
+            }
+            if (checkRules) {
+                postingRuleChain.check(accountId, type, amount);
+            }
+            double balance = type == OperationType.DEBIT ? shard.debit(accountId, amount) : shard.credit(accountId, amount);
+            balanceJournalWriter.append(new BalanceJournalWriter.Entry(accountId, type, amount, shard.currency(accountId), description, new Date()));
+            return balance;
+        });
+    }
+
+    /**
+     * Runs the task on the account's shard thread. An account that is not loaded yet is read by the
+     * loader pool instead, so the shard keeps serving its other accounts during the database round trip.
+     */
+    private <T> CompletableFuture<T> onShard(String accountId, ShardTask<T> task) {
+        BalanceEngineShard shard = shardFor(accountId);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        shard.submit(() -> {
+            if (!shard.contains(accountId)) {
+                load(shard, accountId, shard.generation(), balanceJournalWriter.appendedCount())
+                        .thenCompose(loaded -> onShard(accountId, task))
+                        .whenComplete((value, failure) -> {
+                            if (failure == null) {
+                                result.complete(value);
+                            } else {
+                                result.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+                            }
+                        });
+                return;
+            }
+            try {
+                result.complete(task.run(shard));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Waits for the journal to persist every entry appended before the miss, so the row read
+     * already holds the account's earlier postings. The row is dropped if the account was evicted
+     * while it was being read; the next attempt reads it again.
+     */
+    private CompletableFuture<Void> load(BalanceEngineShard shard, String accountId, long generation, long journaled) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                balanceJournalWriter.awaitJournaled(journaled);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            return transactionTemplate.execute(status -> bankAccountRepository.findAccountBalance(accountId).orElse(null));
+        }, loader).thenCompose(account -> {
+            if (account == null) {
+                return CompletableFuture.failedFuture(new BankAccountNotFoundException("Bank Account Not Found"));
+            }
+            CompletableFuture<Void> loaded = new CompletableFuture<>();
+            shard.submit(() -> {
+                if (shard.generation() == generation) {
+                    shard.load(accountId, account.getBalance(), fxRateService.currencyOrDefault(account.getCurrency()));
+                }
+                loaded.complete(null);
+            });
+            return loaded;
+        });
+    }
+
+    private BalanceEngineShard shardFor(String accountId) {
+        return shards[shardIndex(accountId)];
+    }
+
+    private int shardIndex(String accountId) {
+        return Math.floorMod(accountId.hashCode(), shards.length);
+    }
+
+    @FunctionalInterface
+    private interface ShardTask<T> {
+        T run(BalanceEngineShard shard) throws Exception;
+    }
+}
@@ -0,0 +1,193 @@
+package ma.enset.digitalbankingbackend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.exceptions.BalanceNotSufficentException;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One partition of the balance engine. All account state is owned by a single thread,
+ * so the balance arrays are never shared; other threads only talk to it through the inbox.
+ * Accounts sit in dense parallel arrays and are found through an open-addressing table of
+ * slot numbers (slot + 1, 0 marks a free cell), so a lookup neither boxes nor allocates.
+ * Overdraft limits are not kept: the JPA postings never honoured them, and the engine refuses
+ * debits beyond the balance the same way.
+ */
+@Slf4j
+public class BalanceEngineShard implements Runnable {
+    private final Queue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+    private String[] ids = new String[1024];
+    private double[] balances = new double[1024];
+    private String[] currencies = new String[1024];
+    private int[] index = new int[2048];
+    private int size;
+    private long generation;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public BalanceEngineShard(String name) {
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    public void submit(Runnable task) {
+        inbox.offer(task);
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            Runnable task = inbox.poll();
+            if (task == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Balance shard task failed", e);
+            }
+        }
+    }
+
+    boolean contains(String accountId) {
+        return index[position(accountId)] != 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Bumped by every eviction, so a load that read the database before the eviction can tell
+     * that its row may be out of date.
+     */
+    long generation() {
+        return generation;
+    }
+
+    void load(String accountId, double balance, String currency) {
+        int position = position(accountId);
+        if (index[position] != 0) {
+            return;
+        }
+        if (size == balances.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            balances = Arrays.copyOf(balances, size * 2);
+            currencies = Arrays.copyOf(currencies, size * 2);
+        }
+        ids[size] = accountId;
+        balances[size] = balance;
+        currencies[size] = currency;
+        index[position] = ++size;
+        if (size * 2 > index.length) {
+            rehash(index.length * 2);
+        }
+    }
+
+    /**
+     * Drops the account; the last slot is moved into its place to keep the arrays dense.
+     */
+    void evict(String accountId) {
+        generation++;
+        int position = position(accountId);
+        if (index[position] == 0) {
+            return;
+        }
+        int slot = index[position] - 1;
+        removeAt(position);
+        int last = --size;
+        if (slot != last) {
+            ids[slot] = ids[last];
+            balances[slot] = balances[last];
+            currencies[slot] = currencies[last];
+            index[position(ids[slot])] = slot + 1;
+        }
+        ids[last] = null;
+        currencies[last] = null;
+    }
+
+    void ensureFunds(String accountId, double amount) throws BalanceNotSufficentException {
+        if (balances[slot(accountId)] < amount) {
+            throw new BalanceNotSufficentException("Balance not sufficient");
+        }
+    }
+
+    double debit(String accountId, double amount) throws BalanceNotSufficentException {
+        ensureFunds(accountId, amount);
+        int slot = slot(accountId);
+        balances[slot] -= amount;
+        return balances[slot];
+    }
+
+    double credit(String accountId, double amount) {
+        int slot = slot(accountId);
+        balances[slot] += amount;
+        return balances[slot];
+    }
+
+    double balance(String accountId) {
+        return balances[slot(accountId)];
+    }
+
+    String currency(String accountId) {
+        return currencies[slot(accountId)];
+    }
+
+    private int slot(String accountId) {
+        return index[position(accountId)] - 1;
+    }
+
+    /**
+     * Cell holding the account's slot, or the free cell where it would go.
+     */
+    private int position(String accountId) {
+        int mask = index.length - 1;
+        int i = spread(accountId.hashCode()) & mask;
+        while (index[i] != 0 && !ids[index[i] - 1].equals(accountId)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Backward-shift deletion: later cells of the same probe run are moved up into the hole,
+     * so lookups never need tombstones.
+     */
+    private void removeAt(int position) {
+        int mask = index.length - 1;
+        int hole = position;
+        for (int i = (position + 1) & mask; index[i] != 0; i = (i + 1) & mask) {
+            int home = spread(ids[index[i] - 1].hashCode()) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                index[hole] = index[i];
+                hole = i;
+            }
+        }
+        index[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        index = new int[capacity];
+        for (int slot = 0; slot < size; slot++) {
+            index[position(ids[slot])] = slot + 1;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,182 @@
+package ma.enset.digitalbankingbackend.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.entities.AccountOperation;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.repositories.AccountOperationRepository;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@ConditionalOnProperty(name = "bank.engine.enabled", havingValue = "true")
+@Slf4j
+public class BalanceJournalWriter implements Runnable {
+    private final BlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    private final Queue<Entry> rejected = new ConcurrentLinkedQueue<>();
+    private final AtomicLong appended = new AtomicLong();
+    private long journaled;
+    private final BankAccountRepository bankAccountRepository;
+    private final AccountOperationRepository accountOperationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxRetries;
+    private final Thread thread = new Thread(this, "balance-journal");
+    private volatile boolean running = true;
+
+    public BalanceJournalWriter(BankAccountRepository bankAccountRepository, AccountOperationRepository accountOperationRepository,
+                                TransactionTemplate transactionTemplate, @Value("${bank.engine.journal-batch-size:1000}") int batchSize,
+                                @Value("${bank.engine.journal-max-retries:3}") int maxRetries) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.accountOperationRepository = accountOperationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+    }
+
+    @PostConstruct
+    public void start() {
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join();
+    }
+
+    /**
+     * Counted before it is queued, so once {@link #awaitJournaled} has seen a count every entry
+     * appended before that count was read has been handled.
+     */
+    public void append(Entry entry) {
+        appended.incrementAndGet();
+        pending.add(entry);
+    }
+
+    public long appendedCount() {
+        return appended.get();
+    }
+
+    /**
+     * Blocks until the given number of entries has been persisted or set aside.
+     */
+    public synchronized void awaitJournaled(long count) throws InterruptedException {
+        while (journaled < count && thread.isAlive()) {
+            wait(1000);
+        }
+    }
+
+    private synchronized void journaled(int count) {
+        journaled += count;
+        notifyAll();
+    }
+
+    /**
+     * Entries that could not be persisted even on their own; they are kept here for reconciliation
+     * instead of blocking the rest of the journal.
+     */
+    public List<Entry> getRejectedEntries() {
+        return List.copyOf(rejected);
+    }
+
+    @Override
+    public void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        int failures = 0;
+        while (running || !pending.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    batch.add(pending.take());
+                }
+                pending.drainTo(batch, batchSize - batch.size());
+                flush(batch);
+                journaled(batch.size());
+                batch.clear();
+                failures = 0;
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                if (++failures < maxRetries) {
+                    log.warn("Failed to persist {} journal entries, retrying", batch.size(), e);
+                    pause();
+                } else {
+                    flushEach(batch);
+                    journaled(batch.size());
+                    batch.clear();
+                    failures = 0;
+                }
+            }
+        }
+    }
+
+    private void flushEach(List<Entry> batch) {
+        for (Entry entry : batch) {
+            try {
+                flush(List.of(entry));
+            } catch (RuntimeException e) {
+                log.error("Setting aside journal entry {}", entry, e);
+                rejected.add(entry);
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Double> deltas = new HashMap<>();
+            List<AccountOperation> accountOperations = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                AccountOperation accountOperation = new AccountOperation();
+                accountOperation.setType(entry.getType());
+                accountOperation.setAmount(entry.getAmount());
+                accountOperation.setCurrency(entry.getCurrency());
+                accountOperation.setDescription(entry.getDescription());
+                accountOperation.setOperationDate(entry.getOperationDate());
+                accountOperation.setBankAccount(bankAccountRepository.getReferenceById(entry.getAccountId()));
+                accountOperations.add(accountOperation);
+                double delta = entry.getType() == OperationType.DEBIT ? -entry.getAmount() : entry.getAmount();
+                deltas.merge(entry.getAccountId(), delta, Double::sum);
+            }
+            accountOperationRepository.saveAll(accountOperations);
+            deltas.forEach(bankAccountRepository::addToBalance);
+        });
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Entry {
+        private String accountId;
+        private OperationType type;
+        private double amount;
+        private String currency;
+        private String description;
+        private Date operationDate;
+    }
+}
@@ -4,6 +4,7 @@ import ma.enset.digitalbankingbackend.dtos.*;
 import ma.enset.digitalbankingbackend.exceptions.BalanceNotSufficentException;
 import ma.enset.digitalbankingbackend.exceptions.BankAccountNotFoundException;
 import ma.enset.digitalbankingbackend.exceptions.CustomerNotFoundException;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
 
 import java.util.List;
 
@@ -13,21 +14,29 @@ public interface BankAccountService {
     SavingBankAccountDTO saveSavingBankAccount(double initialBalance, double interestRate, Long customerId) throws CustomerNotFoundException;
     List<CustomerDTO> listCustomers();
     BankAccountDTO getBankAccount(String accountId) throws BankAccountNotFoundException;
-    void debit(String accountId, double amount, String description) throws BankAccountNotFoundException, BalanceNotSufficentException;
-    void credit(String accountId, double amount, String description) throws BalanceNotSufficentException, BankAccountNotFoundException;
-    void transfer(String accountIdSource, String accountIdDestination, double amount) throws BankAccountNotFoundException, BalanceNotSufficentException;
+    void debit(String accountId, double amount, String description) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException;
+    void credit(String accountId, double amount, String description) throws BalanceNotSufficentException, BankAccountNotFoundException, PostingRejectedException;
+    void transfer(String accountIdSource, String accountIdDestination, double amount) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException;
     List<BankAccountDTO> bankAccountList();
 
 
     CustomerDTO getCustomer(Long customerId) throws CustomerNotFoundException;
 
-    CustomerDTO updateCustomer(CustomerDTO customer);
-
-    void deleteCustomer(Long customerId);
+    CustomerDTO updateCustomer(CustomerDTO customer) throws CustomerNotFoundException;
 
     List<AccountOperationDTO> accountHistory(String accountId);
 
     AccountHistoryDTO getAccountHistory(String accountId, int page, int size) throws BankAccountNotFoundException;
 
     List<CustomerDTO> searchCustomers(String keyword);
+
+    CustomerPortfolioDTO getCustomerPortfolio(Long customerId, int operations) throws CustomerNotFoundException;
+
+    String bankAccountsVersion();
+
+    String bankAccountVersion(String accountId);
+
+    String customersVersion();
+
+    String customerVersion(Long customerId);
 }
@@ -3,23 +3,34 @@ package ma.enset.digitalbankingbackend.services;
 import lombok.extern.slf4j.Slf4j;
 import ma.enset.digitalbankingbackend.dtos.*;
 import ma.enset.digitalbankingbackend.entities.*;
+import ma.enset.digitalbankingbackend.enums.AccountStatus;
 import ma.enset.digitalbankingbackend.enums.OperationType;
 import ma.enset.digitalbankingbackend.exceptions.BalanceNotSufficentException;
 import ma.enset.digitalbankingbackend.exceptions.BankAccountNotFoundException;
 import ma.enset.digitalbankingbackend.exceptions.CustomerNotFoundException;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
 import ma.enset.digitalbankingbackend.mappers.BankAccountMapperImpl;
 import ma.enset.digitalbankingbackend.repositories.AccountOperationRepository;
 import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
 import ma.enset.digitalbankingbackend.repositories.CustomerRepository;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -29,12 +40,20 @@ public class BankAccountServiceImpl implements BankAccountService {
     private BankAccountRepository bankAccountRepository;
     private AccountOperationRepository accountOperationRepository;
     private BankAccountMapperImpl  bankAccountMapper;
+    private OperationArchiveService operationArchiveService;
+    private PostingRuleChain postingRuleChain;
+    private FxRateService fxRateService;
+    private ObjectProvider<BalanceEngine> balanceEngine;
 
-    public BankAccountServiceImpl(CustomerRepository customerRepository, BankAccountRepository bankAccountRepository, AccountOperationRepository accountOperationRepository, BankAccountMapperImpl bankAccountMapper) {
+    public BankAccountServiceImpl(CustomerRepository customerRepository, BankAccountRepository bankAccountRepository, AccountOperationRepository accountOperationRepository, BankAccountMapperImpl bankAccountMapper, OperationArchiveService operationArchiveService, PostingRuleChain postingRuleChain, FxRateService fxRateService, ObjectProvider<BalanceEngine> balanceEngine) {
         this.customerRepository = customerRepository;
         this.bankAccountRepository = bankAccountRepository;
         this.accountOperationRepository = accountOperationRepository;
         this.bankAccountMapper = bankAccountMapper;
+        this.operationArchiveService = operationArchiveService;
+        this.postingRuleChain = postingRuleChain;
+        this.fxRateService = fxRateService;
+        this.balanceEngine = balanceEngine;
     }
 
     @Override
@@ -56,6 +75,8 @@ public class BankAccountServiceImpl implements BankAccountService {
         currentAccount.setId(UUID.randomUUID().toString());
         currentAccount.setCreatedAt(new Date());
         currentAccount.setBalance(initialBalance);
+        currentAccount.setCurrency(fxRateService.getDefaultCurrency());
+        currentAccount.setStatus(AccountStatus.CREATED);
         currentAccount.setCustomer(customer);
         currentAccount.setOverDraft(overDraft);
         CurrentAccount savedCurrentAccount = this.bankAccountRepository.save(currentAccount);
@@ -73,6 +94,8 @@ public class BankAccountServiceImpl implements BankAccountService {
         savingAccount.setId(UUID.randomUUID().toString());
         savingAccount.setCreatedAt(new Date());
         savingAccount.setBalance(initialBalance);
+        savingAccount.setCurrency(fxRateService.getDefaultCurrency());
+        savingAccount.setStatus(AccountStatus.CREATED);
         savingAccount.setCustomer(customer);
         savingAccount.setInterestRate(interestRate);
         SavingAccount savedSavingAccount = bankAccountRepository.save(savingAccount);
@@ -81,12 +104,14 @@ public class BankAccountServiceImpl implements BankAccountService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerDTO> listCustomers() {
         List<Customer> customers = customerRepository.findAll();
         return customers.stream().map(customer -> bankAccountMapper.fromCustomer(customer)).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BankAccountDTO getBankAccount(String accountId) throws BankAccountNotFoundException {
         BankAccount bankAccount = this.bankAccountRepository.findById(accountId).orElseThrow(() -> new BankAccountNotFoundException("Bank Account Not Found"));
         if(bankAccount instanceof SavingAccount) {
@@ -99,15 +124,26 @@ public class BankAccountServiceImpl implements BankAccountService {
         }
     }
 
+    /**
+     * The account row is locked until the posting commits, so concurrent postings on one account
+     * (a batch of standing orders sharing a source, say) apply one after the other.
+     */
     @Override
-    public void debit(String accountId, double amount, String description) throws BankAccountNotFoundException, BalanceNotSufficentException {
-        BankAccount bankAccount = this.bankAccountRepository.findById(accountId).orElseThrow(() -> new BankAccountNotFoundException("Bank Account Not Found"));
+    public void debit(String accountId, double amount, String description) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException {
+        BalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine != null) {
+            await(engine.debit(accountId, amount, description));
+            return;
+        }
+        BankAccount bankAccount = this.bankAccountRepository.findForUpdate(accountId).orElseThrow(() -> new BankAccountNotFoundException("Bank Account Not Found"));
         if(bankAccount.getBalance() < amount) {
             throw new BalanceNotSufficentException("Balance not sufficient");
         }
+        postingRuleChain.check(accountId, OperationType.DEBIT, amount);
         AccountOperation accountOperation = new AccountOperation();
         accountOperation.setType(OperationType.DEBIT);
         accountOperation.setAmount(amount);
+        accountOperation.setCurrency(fxRateService.currencyOrDefault(bankAccount.getCurrency()));
         accountOperation.setDescription(description);
         accountOperation.setOperationDate(new Date());
         accountOperation.setBankAccount(bankAccount);
@@ -117,12 +153,19 @@ public class BankAccountServiceImpl implements BankAccountService {
     }
 
     @Override
-    public void credit(String accountId, double amount, String description) throws BankAccountNotFoundException {
-        BankAccount bankAccount = this.bankAccountRepository.findById(accountId).orElseThrow(() -> new BankAccountNotFoundException("Bank Account Not Found"));
+    public void credit(String accountId, double amount, String description) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException {
+        BalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine != null) {
+            await(engine.credit(accountId, amount, description));
+            return;
+        }
+        BankAccount bankAccount = this.bankAccountRepository.findForUpdate(accountId).orElseThrow(() -> new BankAccountNotFoundException("Bank Account Not Found"));
+        postingRuleChain.check(accountId, OperationType.CREDIT, amount);
 
         AccountOperation accountOperation = new AccountOperation();
         accountOperation.setType(OperationType.CREDIT);
         accountOperation.setAmount(amount);
+        accountOperation.setCurrency(fxRateService.currencyOrDefault(bankAccount.getCurrency()));
         accountOperation.setDescription(description);
         accountOperation.setOperationDate(new Date());
         accountOperation.setBankAccount(bankAccount);
@@ -132,12 +175,48 @@ public class BankAccountServiceImpl implements BankAccountService {
     }
 
     @Override
-    public void transfer(String accountIdSource, String accountIdDestination, double amount) throws BankAccountNotFoundException, BalanceNotSufficentException {
+    @Transactional(rollbackFor = Exception.class)
+    public void transfer(String accountIdSource, String accountIdDestination, double amount) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException {
+        BalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine != null) {
+            await(engine.transfer(accountIdSource, accountIdDestination, amount));
+            return;
+        }
+        // Both rows are locked in id order, so opposite transfers between two accounts cannot deadlock.
+        boolean sourceFirst = accountIdSource.compareTo(accountIdDestination) <= 0;
+        BankAccount first = bankAccountRepository.findForUpdate(sourceFirst ? accountIdSource : accountIdDestination).orElseThrow(() -> new BankAccountNotFoundException("Bank Account Not Found"));
+        BankAccount second = bankAccountRepository.findForUpdate(sourceFirst ? accountIdDestination : accountIdSource).orElseThrow(() -> new BankAccountNotFoundException("Bank Account Not Found"));
+        BankAccount source = sourceFirst ? first : second;
+        BankAccount destination = sourceFirst ? second : first;
+        double converted = fxRateService.convert(amount, source.getCurrency(), destination.getCurrency());
         debit(accountIdSource, amount, "Transfer");
-        credit(accountIdDestination, amount, "Transfer");
+        credit(accountIdDestination, converted, "Transfer");
+    }
+
+    /**
+     * While the balance engine is enabled it owns the balances, so postings go through it
+     * instead of writing the account rows here.
+     */
+    private void await(CompletableFuture<Double> posting) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException {
+        try {
+            posting.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BankAccountNotFoundException notFound) {
+                throw notFound;
+            }
+            if (cause instanceof BalanceNotSufficentException notSufficient) {
+                throw notSufficient;
+            }
+            if (cause instanceof PostingRejectedException rejected) {
+                throw rejected;
+            }
+            throw e;
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BankAccountDTO> bankAccountList(){
         List<BankAccount> bankAccounts = bankAccountRepository.findAll();
         return bankAccounts.stream().map(bankAccount -> {
@@ -149,6 +228,7 @@ public class BankAccountServiceImpl implements BankAccountService {
         }).toList();
     }
     @Override
+    @Transactional(readOnly = true)
     public CustomerDTO getCustomer(Long customerId) throws CustomerNotFoundException {
         Customer customer = this.customerRepository.findById(customerId).orElse(null);
         if(customer == null) {
@@ -158,45 +238,128 @@ public class BankAccountServiceImpl implements BankAccountService {
     }
 
     @Override
-    public CustomerDTO updateCustomer(CustomerDTO customer) {
+    public CustomerDTO updateCustomer(CustomerDTO customer) throws CustomerNotFoundException {
         log.info("Update customer {}", customer);
-        Customer customer1 = bankAccountMapper.fromCustomerDTO(customer);
+        Customer customer1 = this.customerRepository.findById(customer.getId()).orElse(null);
+        if(customer1 == null) {
+            throw new CustomerNotFoundException("Customer with id " + customer.getId() + " not found");
+        }
+        customer1.setName(customer.getName());
+        customer1.setEmail(customer.getEmail());
         Customer savedCustomer = this.customerRepository.save(customer1);
         return bankAccountMapper.fromCustomer(savedCustomer);
     }
 
     @Override
-    public void deleteCustomer(Long customerId) {
-        customerRepository.deleteById(customerId);
-    }
-
-    @Override
+    @Transactional(readOnly = true)
     public List<AccountOperationDTO> accountHistory(String accountId){
+        List<AccountOperationDTO> accountOperationDTOS = new ArrayList<>(operationArchiveService.readAllArchived(accountId));
         List<AccountOperation> accountOperations = accountOperationRepository.findByBankAccountId(accountId);
-        return accountOperations.stream().map(op -> bankAccountMapper.fromAccountOperation(op)).toList();
+        accountOperations.forEach(op -> accountOperationDTOS.add(bankAccountMapper.fromAccountOperation(op)));
+        return accountOperationDTOS;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AccountHistoryDTO getAccountHistory(String accountId, int page, int size) throws BankAccountNotFoundException {
         BankAccount bankAccount = bankAccountRepository.findById(accountId).orElse(null);
         if(bankAccount == null) {
             throw new BankAccountNotFoundException("Account Not found");
         }
-        Page<AccountOperation> accountOperations = accountOperationRepository.findByBankAccountId(accountId, PageRequest.of(page, size));
+        long archived = operationArchiveService.countArchived(accountId);
+        long total = archived + accountOperationRepository.countByBankAccountId(accountId);
+        long offset = (long) page * size;
+        List<AccountOperationDTO> accountOperationDTOS = new ArrayList<>();
+        if (offset < archived) {
+            accountOperationDTOS.addAll(operationArchiveService.readArchived(accountId, offset, size));
+        }
+        int remaining = size - accountOperationDTOS.size();
+        if (remaining > 0 && offset + accountOperationDTOS.size() < total) {
+            accountOperationRepository.findByBankAccountIdOrderById(accountId, Math.max(0, offset - archived), remaining)
+                    .forEach(op -> accountOperationDTOS.add(bankAccountMapper.fromAccountOperation(op)));
+        }
         AccountHistoryDTO accountHistoryDTO = new AccountHistoryDTO();
-        List<AccountOperationDTO> accountOperationDTOS = accountOperations.getContent().stream().map(op -> bankAccountMapper.fromAccountOperation(op)).toList();
         accountHistoryDTO.setAccountOperationDTOS(accountOperationDTOS);
         accountHistoryDTO.setAccountId(bankAccount.getId());
         accountHistoryDTO.setBalance(bankAccount.getBalance());
         accountHistoryDTO.setPageSize(size);
         accountHistoryDTO.setCurrentPage(page);
-        accountHistoryDTO.setTotalPages(accountOperations.getTotalPages());
+        accountHistoryDTO.setTotalPages(size > 0 ? (int) ((total + size - 1) / size) : 0);
         return accountHistoryDTO;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerDTO> searchCustomers(String keyword) {
         List<Customer> customers = customerRepository.findByNameContains(keyword);
         return customers.stream().map(customer -> bankAccountMapper.fromCustomer(customer)).toList();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerPortfolioDTO getCustomerPortfolio(Long customerId, int operations) throws CustomerNotFoundException {
+        Customer customer = customerRepository.findWithBankAccountsById(customerId)
+                .orElseThrow(() -> new CustomerNotFoundException("Customer with id " + customerId + " not found"));
+        List<String> accountIds = customer.getBankAccounts().stream().map(BankAccount::getId).toList();
+        Map<String, List<AccountOperationDTO>> lastOperations = accountIds.isEmpty() || operations <= 0 ? Map.of() :
+                accountOperationRepository.findLatestByBankAccountIds(accountIds, operations).stream()
+                        .sorted(Comparator.comparing(AccountOperation::getOperationDate).thenComparing(AccountOperation::getId).reversed())
+                        .collect(Collectors.groupingBy(op -> op.getBankAccount().getId(),
+                                Collectors.mapping(op -> bankAccountMapper.fromAccountOperation(op), Collectors.toList())));
+        CustomerPortfolioDTO customerPortfolioDTO = new CustomerPortfolioDTO();
+        customerPortfolioDTO.setCustomerDTO(bankAccountMapper.fromCustomer(customer));
+        customerPortfolioDTO.setAccounts(customer.getBankAccounts().stream().map(bankAccount -> {
+            PortfolioAccountDTO portfolioAccountDTO = new PortfolioAccountDTO();
+            portfolioAccountDTO.setBankAccountDTO(bankAccountMapper.fromBankAccount(bankAccount));
+            portfolioAccountDTO.setLastOperations(lastOperations.getOrDefault(bankAccount.getId(), List.of()));
+            return portfolioAccountDTO;
+        }).toList());
+        return customerPortfolioDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String bankAccountsVersion() {
+        try (Stream<String> versions = bankAccountRepository.streamVersions()) {
+            return digest(versions);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String bankAccountVersion(String accountId) {
+        return bankAccountRepository.findVersionById(accountId).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String customersVersion() {
+        try (Stream<String> versions = customerRepository.streamVersions()) {
+            return digest(versions);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String customerVersion(Long customerId) {
+        return customerRepository.findVersionById(customerId).map(String::valueOf).orElse(null);
+    }
+
+    /**
+     * Hashes every row's version in id order, so any insert, update or delete changes the result;
+     * aggregates such as count and max can come out the same after a delete and an insert.
+     */
+    private static String digest(Stream<String> rows) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        rows.forEach(row -> {
+            messageDigest.update(row.getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) '\n');
+        });
+        return HexFormat.of().formatHex(messageDigest.digest(), 0, 16);
+    }
 }
@@ -0,0 +1,123 @@
+package ma.enset.digitalbankingbackend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.dtos.BankAccountImportDTO;
+import ma.enset.digitalbankingbackend.dtos.CustomerImportDTO;
+import ma.enset.digitalbankingbackend.dtos.ImportReportDTO;
+import ma.enset.digitalbankingbackend.entities.CurrentAccount;
+import ma.enset.digitalbankingbackend.entities.SavingAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@Slf4j
+public class CustomerImportService {
+    private final CustomerImportWriter customerImportWriter;
+    private final ObjectMapper objectMapper;
+    private final FxRateService fxRateService;
+    private final int chunkSize;
+
+    public CustomerImportService(CustomerImportWriter customerImportWriter, ObjectMapper objectMapper, FxRateService fxRateService,
+                                 @Value("${bank.import.chunk-size:1000}") int chunkSize) {
+        this.customerImportWriter = customerImportWriter;
+        this.objectMapper = objectMapper;
+        this.fxRateService = fxRateService;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportReportDTO importCustomers(InputStream input, long resumeFrom) throws IOException {
+        long start = System.nanoTime();
+        ImportReportDTO report = new ImportReportDTO();
+        report.setLastCommittedLine(resumeFrom);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        boolean failed = false;
+        while (!failed && (line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber <= resumeFrom) {
+                continue;
+            }
+            chunk.add(line);
+            if (chunk.size() == chunkSize) {
+                failed = !importChunk(chunk, lineNumber, report);
+                chunk.clear();
+            }
+        }
+        if (!failed && !chunk.isEmpty()) {
+            failed = !importChunk(chunk, lineNumber, report);
+        }
+        report.setCompleted(!failed);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        report.setRowsPerSecond(seconds > 0 ? report.getLinesRead() / seconds : 0);
+        log.info("Customer import {}: {} lines, {} customers, {} accounts, {} rejected, {} rows/s",
+                failed ? "stopped" : "completed", report.getLinesRead(), report.getCustomersImported(),
+                report.getAccountsImported(), report.getRejected(), (long) report.getRowsPerSecond());
+        return report;
+    }
+
+    private boolean importChunk(List<String> lines, long lastLineNumber, ImportReportDTO report) {
+        List<CustomerImportDTO> customers = lines.parallelStream()
+                .map(this::parse)
+                .filter(Objects::nonNull)
+                .toList();
+        try {
+            int accounts = customerImportWriter.writeChunk(customers);
+            report.setLinesRead(report.getLinesRead() + lines.size());
+            report.setCustomersImported(report.getCustomersImported() + customers.size());
+            report.setAccountsImported(report.getAccountsImported() + accounts);
+            report.setRejected(report.getRejected() + lines.size() - customers.size());
+            report.setLastCommittedLine(lastLineNumber);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Customer import failed in chunk ending at line {}", lastLineNumber, e);
+            report.setError(e.getMessage());
+            return false;
+        }
+    }
+
+    private CustomerImportDTO parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            CustomerImportDTO customer = objectMapper.readValue(line, CustomerImportDTO.class);
+            return isValid(customer) ? customer : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private boolean isValid(CustomerImportDTO customer) {
+        if (customer.getName() == null || customer.getName().isBlank()) {
+            return false;
+        }
+        if (customer.getEmail() == null || !customer.getEmail().contains("@")) {
+            return false;
+        }
+        if (customer.getAccounts() == null) {
+            customer.setAccounts(List.of());
+        }
+        for (BankAccountImportDTO account : customer.getAccounts()) {
+            boolean knownType = CurrentAccount.class.getSimpleName().equals(account.getType())
+                    || SavingAccount.class.getSimpleName().equals(account.getType());
+            if (!knownType || account.getBalance() < 0 || account.getOverDraft() < 0 || account.getInterestRate() < 0
+                    || !fxRateService.isKnownCurrency(account.getCurrency())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
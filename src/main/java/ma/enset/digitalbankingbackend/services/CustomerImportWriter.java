@@ -0,0 +1,69 @@
+package ma.enset.digitalbankingbackend.services;
+
+import jakarta.persistence.EntityManager;
+import ma.enset.digitalbankingbackend.dtos.BankAccountImportDTO;
+import ma.enset.digitalbankingbackend.dtos.CustomerImportDTO;
+import ma.enset.digitalbankingbackend.entities.BankAccount;
+import ma.enset.digitalbankingbackend.entities.CurrentAccount;
+import ma.enset.digitalbankingbackend.entities.Customer;
+import ma.enset.digitalbankingbackend.entities.SavingAccount;
+import ma.enset.digitalbankingbackend.enums.AccountStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Transactional
+public class CustomerImportWriter {
+    private final EntityManager entityManager;
+    private final FxRateService fxRateService;
+    private final ObjectProvider<BalanceEngine> balanceEngine;
+
+    public CustomerImportWriter(EntityManager entityManager, FxRateService fxRateService, ObjectProvider<BalanceEngine> balanceEngine) {
+        this.entityManager = entityManager;
+        this.fxRateService = fxRateService;
+        this.balanceEngine = balanceEngine;
+    }
+
+    public int writeChunk(List<CustomerImportDTO> customers) {
+        List<String> accountIds = new ArrayList<>();
+        Date createdAt = new Date();
+        for (CustomerImportDTO customerImportDTO : customers) {
+            Customer customer = new Customer();
+            customer.setName(customerImportDTO.getName());
+            customer.setEmail(customerImportDTO.getEmail());
+            entityManager.persist(customer);
+            for (BankAccountImportDTO accountImportDTO : customerImportDTO.getAccounts()) {
+                BankAccount bankAccount = toBankAccount(accountImportDTO);
+                bankAccount.setId(UUID.randomUUID().toString());
+                bankAccount.setCreatedAt(createdAt);
+                bankAccount.setBalance(accountImportDTO.getBalance());
+                bankAccount.setCurrency(fxRateService.currencyOrDefault(accountImportDTO.getCurrency()));
+                bankAccount.setStatus(AccountStatus.CREATED);
+                bankAccount.setCustomer(customer);
+                entityManager.persist(bankAccount);
+                accountIds.add(bankAccount.getId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        balanceEngine.ifAvailable(engine -> engine.invalidate(accountIds));
+        return accountIds.size();
+    }
+
+    private BankAccount toBankAccount(BankAccountImportDTO accountImportDTO) {
+        if (SavingAccount.class.getSimpleName().equals(accountImportDTO.getType())) {
+            SavingAccount savingAccount = new SavingAccount();
+            savingAccount.setInterestRate(accountImportDTO.getInterestRate());
+            return savingAccount;
+        }
+        CurrentAccount currentAccount = new CurrentAccount();
+        currentAccount.setOverDraft(accountImportDTO.getOverDraft());
+        return currentAccount;
+    }
+}
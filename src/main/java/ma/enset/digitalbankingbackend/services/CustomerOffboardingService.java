@@ -0,0 +1,98 @@
+package ma.enset.digitalbankingbackend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.dtos.OffboardingReportDTO;
+import ma.enset.digitalbankingbackend.enums.AccountStatus;
+import ma.enset.digitalbankingbackend.exceptions.CustomerNotFoundException;
+import ma.enset.digitalbankingbackend.exceptions.OffboardingRejectedException;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import ma.enset.digitalbankingbackend.repositories.CustomerRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Removes a customer without loading its accounts or operations. Accounts are either moved to
+ * another customer, or, when none of them holds money, suspended, archived and deleted. Every
+ * step is its own short transaction, so a failed run leaves suspended accounts behind and can
+ * simply be repeated. While the balance engine is enabled, balances are read from the engine and
+ * the journal is drained before archiving, since the rows lag behind it.
+ */
+@Service
+@Slf4j
+public class CustomerOffboardingService {
+    private final CustomerRepository customerRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final CustomerOffboardingWriter customerOffboardingWriter;
+    private final AccountStatusService accountStatusService;
+    private final OperationArchiveService operationArchiveService;
+    private final ObjectProvider<BalanceEngine> balanceEngine;
+
+    public CustomerOffboardingService(CustomerRepository customerRepository, BankAccountRepository bankAccountRepository,
+                                      CustomerOffboardingWriter customerOffboardingWriter, AccountStatusService accountStatusService,
+                                      OperationArchiveService operationArchiveService, ObjectProvider<BalanceEngine> balanceEngine) {
+        this.customerRepository = customerRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.customerOffboardingWriter = customerOffboardingWriter;
+        this.accountStatusService = accountStatusService;
+        this.operationArchiveService = operationArchiveService;
+        this.balanceEngine = balanceEngine;
+    }
+
+    public OffboardingReportDTO deleteCustomer(Long customerId, Long transferTo) throws CustomerNotFoundException, OffboardingRejectedException, IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        if (customerId.equals(transferTo)) {
+            throw new OffboardingRejectedException("Cannot transfer the accounts of customer " + customerId + " to itself");
+        }
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException("Customer with id " + customerId + " not found");
+        }
+        OffboardingReportDTO report = new OffboardingReportDTO();
+        report.setCustomerId(customerId);
+        if (transferTo != null) {
+            if (!customerRepository.existsById(transferTo)) {
+                throw new CustomerNotFoundException("Customer with id " + transferTo + " not found");
+            }
+            report.setTransferredTo(transferTo);
+            report.setAccounts(customerOffboardingWriter.moveAccounts(customerId, transferTo));
+        } else {
+            List<String> accountIds = bankAccountRepository.findIdsByCustomerId(customerId);
+            if (holdsFunds(customerId, accountIds)) {
+                throw new OffboardingRejectedException("Customer " + customerId + " still holds funded accounts, empty them or pass transferTo");
+            }
+            accountStatusService.updateStatus(accountIds, AccountStatus.SUSPENDED);
+            report.setCancelledStandingOrders(customerOffboardingWriter.cancelStandingOrders(accountIds));
+            BalanceEngine engine = balanceEngine.getIfAvailable();
+            if (engine != null) {
+                if (holdsFunds(customerId, accountIds)) {
+                    throw new OffboardingRejectedException("Customer " + customerId + " still holds funded accounts");
+                }
+                engine.awaitJournal();
+            }
+            Date before = Date.from(Instant.now().plus(1, ChronoUnit.DAYS));
+            long archived = 0;
+            for (String accountId : accountIds) {
+                archived += operationArchiveService.archiveAccount(accountId, before);
+            }
+            report.setArchivedOperations(archived);
+            report.setAccounts(customerOffboardingWriter.closeAccounts(customerId, accountIds));
+        }
+        report.setDurationMillis(System.currentTimeMillis() - start);
+        log.info("Offboarded customer {}: {} accounts, {} operations archived in {} ms", customerId, report.getAccounts(),
+                report.getArchivedOperations(), report.getDurationMillis());
+        return report;
+    }
+
+    private boolean holdsFunds(Long customerId, List<String> accountIds) {
+        BalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine == null) {
+            return bankAccountRepository.countFundedByCustomerId(customerId) > 0;
+        }
+        return accountIds.stream().anyMatch(accountId -> engine.getBalance(accountId).join() != 0);
+    }
+}
@@ -0,0 +1,61 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.exceptions.OffboardingRejectedException;
+import ma.enset.digitalbankingbackend.repositories.AccountDailyRollupRepository;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import ma.enset.digitalbankingbackend.repositories.CustomerRepository;
+import ma.enset.digitalbankingbackend.repositories.StandingOrderRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional
+public class CustomerOffboardingWriter {
+    private final CustomerRepository customerRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final AccountDailyRollupRepository accountDailyRollupRepository;
+    private final StandingOrderRepository standingOrderRepository;
+    private final ObjectProvider<BalanceEngine> balanceEngine;
+
+    public CustomerOffboardingWriter(CustomerRepository customerRepository, BankAccountRepository bankAccountRepository,
+                                     AccountDailyRollupRepository accountDailyRollupRepository, StandingOrderRepository standingOrderRepository,
+                                     ObjectProvider<BalanceEngine> balanceEngine) {
+        this.customerRepository = customerRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.accountDailyRollupRepository = accountDailyRollupRepository;
+        this.standingOrderRepository = standingOrderRepository;
+        this.balanceEngine = balanceEngine;
+    }
+
+    public int moveAccounts(Long customerId, Long toCustomerId) {
+        int moved = bankAccountRepository.moveToCustomer(customerId, customerRepository.getReferenceById(toCustomerId));
+        accountDailyRollupRepository.moveToCustomer(customerId, toCustomerId);
+        customerRepository.deleteInBulkById(customerId);
+        return moved;
+    }
+
+    public int cancelStandingOrders(List<String> accountIds) {
+        return accountIds.isEmpty() ? 0 : standingOrderRepository.cancelByAccountIds(accountIds);
+    }
+
+    /**
+     * Deletes the customer and its accounts. The accounts' operations must already be archived,
+     * otherwise the foreign keys reject the delete and nothing is removed. Accounts that were funded
+     * again after the service's first check are caught here, in the same transaction as the delete.
+     */
+    public int closeAccounts(Long customerId, List<String> accountIds) throws OffboardingRejectedException {
+        if (bankAccountRepository.countFundedByCustomerId(customerId) > 0) {
+            throw new OffboardingRejectedException("Customer " + customerId + " still holds funded accounts");
+        }
+        if (!accountIds.isEmpty()) {
+            accountDailyRollupRepository.deleteInBulkByAccountIds(accountIds);
+        }
+        int closed = bankAccountRepository.deleteInBulkByCustomerId(customerId);
+        customerRepository.deleteInBulkById(customerId);
+        balanceEngine.ifAvailable(engine -> engine.invalidate(accountIds));
+        return closed;
+    }
+}
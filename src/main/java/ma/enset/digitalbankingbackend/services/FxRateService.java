@@ -0,0 +1,102 @@
+package ma.enset.digitalbankingbackend.services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class FxRateService {
+    private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Z]{3}");
+    private final String defaultCurrency;
+    private final Path ratesFile;
+    private final AtomicReference<FxRateTable> rates;
+    private volatile long loadedModifiedTime = -1;
+
+    public FxRateService(@Value("${bank.currency.default:MAD}") String defaultCurrency,
+                         @Value("${bank.fx.rates-file:fx-rates.properties}") String ratesFile) {
+        this.defaultCurrency = defaultCurrency;
+        this.ratesFile = Path.of(ratesFile);
+        this.rates = new AtomicReference<>(new FxRateTable(defaultCurrency, Map.of()));
+    }
+
+    public String getDefaultCurrency() {
+        return defaultCurrency;
+    }
+
+    public String currencyOrDefault(String currency) {
+        return currency == null ? defaultCurrency : currency;
+    }
+
+    /**
+     * Whether postings in this currency can be converted with the current table; no currency
+     * means the default one.
+     */
+    public boolean isKnownCurrency(String currency) {
+        return rates.get().rate(currencyOrDefault(currency)) != null;
+    }
+
+    public double convert(double amount, String from, String to) throws PostingRejectedException {
+        from = currencyOrDefault(from);
+        to = currencyOrDefault(to);
+        if (from.equals(to)) {
+            return amount;
+        }
+        FxRateTable table = rates.get();
+        Double fromRate = table.rate(from);
+        Double toRate = table.rate(to);
+        if (fromRate == null || toRate == null) {
+            throw new PostingRejectedException("No exchange rate for " + from + "/" + to);
+        }
+        return amount * fromRate / toRate;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${bank.fx.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            if (!Files.exists(ratesFile)) {
+                return;
+            }
+            long modifiedTime = Files.getLastModifiedTime(ratesFile).toMillis();
+            if (modifiedTime == loadedModifiedTime) {
+                return;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(ratesFile)) {
+                properties.load(reader);
+            }
+            Map<String, Double> loaded = new HashMap<>();
+            for (String currency : properties.stringPropertyNames()) {
+                String code = currency.trim();
+                double rate = Double.parseDouble(properties.getProperty(currency).trim());
+                if (!CURRENCY_CODE.matcher(code).matches()) {
+                    throw new IllegalArgumentException("Invalid currency code '" + code + "'");
+                }
+                if (!Double.isFinite(rate) || rate <= 0) {
+                    throw new IllegalArgumentException("Invalid exchange rate " + rate + " for " + code);
+                }
+                loaded.put(code, rate);
+            }
+            FxRateTable table = new FxRateTable(defaultCurrency, loaded);
+            rates.set(table);
+            loadedModifiedTime = modifiedTime;
+            log.info("Loaded {} exchange rates from {}", table.size(), ratesFile);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to load exchange rates from {}, keeping the previous table", ratesFile, e);
+        }
+    }
+}
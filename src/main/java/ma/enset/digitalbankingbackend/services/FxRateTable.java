@@ -0,0 +1,24 @@
+package ma.enset.digitalbankingbackend.services;
+
+import java.util.Map;
+
+/**
+ * Immutable snapshot of exchange rates, each expressed as the value of one unit in the base currency.
+ */
+public final class FxRateTable {
+    private final String baseCurrency;
+    private final Map<String, Double> rates;
+
+    public FxRateTable(String baseCurrency, Map<String, Double> rates) {
+        this.baseCurrency = baseCurrency;
+        this.rates = Map.copyOf(rates);
+    }
+
+    public Double rate(String currency) {
+        return baseCurrency.equals(currency) ? Double.valueOf(1.0) : rates.get(currency);
+    }
+
+    public int size() {
+        return rates.size() + 1;
+    }
+}
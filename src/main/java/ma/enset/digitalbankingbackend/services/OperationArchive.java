@@ -0,0 +1,146 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.AccountOperationDTO;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped, column-oriented segment files: ids and dates are delta encoded and written column by
+ * column so that similar values sit next to each other for the compressor. Every write goes to a
+ * new file name, staged as a temporary file until the transaction recording it commits.
+ */
+@Service
+public class OperationArchive {
+    private static final int FORMAT_VERSION = 2;
+    private static final OperationType[] TYPES = OperationType.values();
+    private final Path directory;
+
+    public OperationArchive(@Value("${bank.archive.dir:archive}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * Writes the segment to a temporary file and returns the path it is published under.
+     */
+    public Path write(String accountId, YearMonth month, List<AccountOperationDTO> operations) throws IOException {
+        Files.createDirectories(directory.resolve(accountId));
+        Path target;
+        for (long version = System.currentTimeMillis(); ; version++) {
+            target = directory.resolve(accountId).resolve(month + "-" + version + ".ops.gz");
+            if (!Files.exists(target) && !Files.exists(temp(target))) {
+                break;
+            }
+        }
+        Path temp = temp(target);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(operations.size());
+            long previous = 0;
+            for (AccountOperationDTO op : operations) {
+                out.writeLong(op.getId() - previous);
+                previous = op.getId();
+            }
+            previous = 0;
+            for (AccountOperationDTO op : operations) {
+                out.writeLong(op.getOperationDate().getTime() - previous);
+                previous = op.getOperationDate().getTime();
+            }
+            for (AccountOperationDTO op : operations) {
+                out.writeDouble(op.getAmount());
+            }
+            for (AccountOperationDTO op : operations) {
+                out.writeByte(op.getType().ordinal());
+            }
+            for (AccountOperationDTO op : operations) {
+                out.writeBoolean(op.getDescription() != null);
+                if (op.getDescription() != null) {
+                    out.writeUTF(op.getDescription());
+                }
+            }
+            for (AccountOperationDTO op : operations) {
+                out.writeBoolean(op.getCurrency() != null);
+                if (op.getCurrency() != null) {
+                    out.writeUTF(op.getCurrency());
+                }
+            }
+        }
+        return target;
+    }
+
+    public void publish(Path path) throws IOException {
+        Files.move(temp(path), path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void discard(Path path) throws IOException {
+        Files.deleteIfExists(temp(path));
+    }
+
+    public void delete(Path path) throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * A segment whose transaction committed but whose file was never moved in place (the process
+     * stopped in between) is published on first read.
+     */
+    public List<AccountOperationDTO> read(Path path) throws IOException {
+        if (!Files.exists(path) && Files.exists(temp(path))) {
+            publish(path);
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+            int version = in.readInt();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported archive format " + version + " in " + path);
+            }
+            int count = in.readInt();
+            List<AccountOperationDTO> operations = new ArrayList<>(count);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                AccountOperationDTO op = new AccountOperationDTO();
+                previous += in.readLong();
+                op.setId(previous);
+                operations.add(op);
+            }
+            previous = 0;
+            for (AccountOperationDTO op : operations) {
+                previous += in.readLong();
+                op.setOperationDate(new Date(previous));
+            }
+            for (AccountOperationDTO op : operations) {
+                op.setAmount(in.readDouble());
+            }
+            for (AccountOperationDTO op : operations) {
+                op.setType(TYPES[in.readByte()]);
+            }
+            for (AccountOperationDTO op : operations) {
+                if (in.readBoolean()) {
+                    op.setDescription(in.readUTF());
+                }
+            }
+            if (version >= 2) {
+                for (AccountOperationDTO op : operations) {
+                    if (in.readBoolean()) {
+                        op.setCurrency(in.readUTF());
+                    }
+                }
+            }
+            return operations;
+        }
+    }
+
+    private static Path temp(Path path) {
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+}
@@ -0,0 +1,119 @@
+package ma.enset.digitalbankingbackend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.dtos.AccountOperationDTO;
+import ma.enset.digitalbankingbackend.entities.ArchivedOperationSegment;
+import ma.enset.digitalbankingbackend.repositories.ArchivedOperationSegmentRepository;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@Service
+@Slf4j
+public class OperationArchiveService {
+    private final BankAccountRepository bankAccountRepository;
+    private final ArchivedOperationSegmentRepository archivedOperationSegmentRepository;
+    private final OperationArchiveWriter operationArchiveWriter;
+    private final OperationArchive operationArchive;
+    private final int retentionMonths;
+
+    public OperationArchiveService(BankAccountRepository bankAccountRepository, ArchivedOperationSegmentRepository archivedOperationSegmentRepository,
+                                   OperationArchiveWriter operationArchiveWriter, OperationArchive operationArchive,
+                                   @Value("${bank.archive.retention-months:12}") int retentionMonths) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.archivedOperationSegmentRepository = archivedOperationSegmentRepository;
+        this.operationArchiveWriter = operationArchiveWriter;
+        this.operationArchive = operationArchive;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(cron = "${bank.archive.cron:0 30 3 * * *}")
+    public synchronized void archiveColdOperations() {
+        Date cutoff = Date.from(YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        long start = System.currentTimeMillis();
+        long archived = 0;
+        String lastId = "";
+        List<String> accountIds;
+        do {
+            accountIds = bankAccountRepository.findIdsAfter(lastId, PageRequest.of(0, 1000));
+            for (String accountId : accountIds) {
+                try {
+                    archived += archiveAccount(accountId, cutoff);
+                } catch (IOException | RuntimeException e) {
+                    log.error("Failed to archive operations of account {}", accountId, e);
+                }
+            }
+            if (!accountIds.isEmpty()) {
+                lastId = accountIds.get(accountIds.size() - 1);
+            }
+        } while (accountIds.size() == 1000);
+        log.info("Archived {} operations older than {} in {} ms", archived, cutoff, System.currentTimeMillis() - start);
+    }
+
+    public long archiveAccount(String accountId, Date before) throws IOException {
+        return operationArchiveWriter.archiveAccount(accountId, before);
+    }
+
+    @Transactional(readOnly = true)
+    public long countArchived(String accountId) {
+        return archivedOperationSegmentRepository.countOperations(accountId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountOperationDTO> readArchived(String accountId, long offset, int limit) {
+        List<AccountOperationDTO> operations = new ArrayList<>();
+        long skipped = 0;
+        for (ArchivedOperationSegment segment : archivedOperationSegmentRepository.findByAccountIdOrderBySegmentMonth(accountId)) {
+            if (operations.size() >= limit) {
+                break;
+            }
+            if (skipped + segment.getOperationCount() <= offset) {
+                skipped += segment.getOperationCount();
+                continue;
+            }
+            List<AccountOperationDTO> segmentOperations = read(segment);
+            int from = (int) Math.max(0, offset - skipped);
+            skipped += segment.getOperationCount();
+            int to = Math.min(segmentOperations.size(), from + limit - operations.size());
+            operations.addAll(segmentOperations.subList(from, to));
+        }
+        return operations;
+    }
+
+    @Transactional(readOnly = true)
+    public double archivedNetAmountSince(String accountId, YearMonth month) {
+        return archivedOperationSegmentRepository.sumNetAmountFrom(accountId, month.toString());
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountOperationDTO> readArchivedMonth(String accountId, YearMonth month) {
+        return archivedOperationSegmentRepository.findByAccountIdAndSegmentMonth(accountId, month.toString()).map(this::read).orElse(List.of());
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountOperationDTO> readAllArchived(String accountId) {
+        List<AccountOperationDTO> operations = new ArrayList<>();
+        archivedOperationSegmentRepository.findByAccountIdOrderBySegmentMonth(accountId).forEach(segment -> operations.addAll(read(segment)));
+        return operations;
+    }
+
+    private List<AccountOperationDTO> read(ArchivedOperationSegment segment) {
+        try {
+            return operationArchive.read(Path.of(segment.getPath()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.AccountOperationDTO;
+import ma.enset.digitalbankingbackend.entities.ArchivedOperationSegment;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.repositories.AccountOperationRepository;
+import ma.enset.digitalbankingbackend.repositories.ArchivedOperationSegmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Stream;
+
+@Service
+@Transactional
+@Slf4j
+public class OperationArchiveWriter {
+    private final AccountOperationRepository accountOperationRepository;
+    private final ArchivedOperationSegmentRepository archivedOperationSegmentRepository;
+    private final OperationArchive operationArchive;
+    private final int deleteChunkSize;
+
+    public OperationArchiveWriter(AccountOperationRepository accountOperationRepository, ArchivedOperationSegmentRepository archivedOperationSegmentRepository,
+                                  OperationArchive operationArchive, @Value("${bank.archive.delete-chunk-size:1000}") int deleteChunkSize) {
+        this.accountOperationRepository = accountOperationRepository;
+        this.archivedOperationSegmentRepository = archivedOperationSegmentRepository;
+        this.operationArchive = operationArchive;
+        this.deleteChunkSize = deleteChunkSize;
+    }
+
+    /**
+     * Moves every operation of the account dated before {@code before} into monthly segments and
+     * returns how many were moved. The segment rows and the deletes commit together, so an operation
+     * is never both archived and hot; segment files are only moved in place once that commit happened.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public long archiveAccount(String accountId, Date before) throws IOException {
+        List<Long> archivedIds = new ArrayList<>();
+        try (Stream<AccountOperationDTO> operations = accountOperationRepository.streamByBankAccountIdAndPeriod(accountId, new Date(0), before)) {
+            Iterator<AccountOperationDTO> iterator = operations.iterator();
+            YearMonth month = null;
+            List<AccountOperationDTO> buffer = new ArrayList<>();
+            while (iterator.hasNext()) {
+                AccountOperationDTO op = iterator.next();
+                YearMonth opMonth = YearMonth.from(op.getOperationDate().toInstant().atZone(ZoneId.systemDefault()));
+                if (month != null && !month.equals(opMonth)) {
+                    writeSegment(accountId, month, buffer);
+                    buffer.clear();
+                }
+                month = opMonth;
+                buffer.add(op);
+                archivedIds.add(op.getId());
+            }
+            if (!buffer.isEmpty()) {
+                writeSegment(accountId, month, buffer);
+            }
+        }
+        for (int i = 0; i < archivedIds.size(); i += deleteChunkSize) {
+            accountOperationRepository.deleteAllByIdInBatch(archivedIds.subList(i, Math.min(i + deleteChunkSize, archivedIds.size())));
+        }
+        return archivedIds.size();
+    }
+
+    private void writeSegment(String accountId, YearMonth month, List<AccountOperationDTO> operations) throws IOException {
+        ArchivedOperationSegment segment = archivedOperationSegmentRepository.findByAccountIdAndSegmentMonth(accountId, month.toString())
+                .orElseGet(() -> new ArchivedOperationSegment(null, accountId, month.toString(), 0, 0, null));
+        List<AccountOperationDTO> segmentOperations = operations;
+        if (segment.getPath() != null) {
+            Map<Long, AccountOperationDTO> merged = new HashMap<>();
+            operationArchive.read(Path.of(segment.getPath())).forEach(op -> merged.put(op.getId(), op));
+            operations.forEach(op -> merged.put(op.getId(), op));
+            segmentOperations = new ArrayList<>(merged.values());
+            segmentOperations.sort(Comparator.comparing(AccountOperationDTO::getOperationDate).thenComparing(AccountOperationDTO::getId));
+        }
+        Path previous = segment.getPath() != null ? Path.of(segment.getPath()) : null;
+        Path path = operationArchive.write(accountId, month, segmentOperations);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        operationArchive.publish(path);
+                        if (previous != null) {
+                            operationArchive.delete(previous);
+                        }
+                    } else {
+                        operationArchive.discard(path);
+                    }
+                } catch (IOException e) {
+                    log.error("Failed to settle archive segment {}", path, e);
+                }
+            }
+        });
+        segment.setPath(path.toString());
+        segment.setOperationCount(segmentOperations.size());
+        segment.setNetAmount(segmentOperations.stream().mapToDouble(op -> op.getType() == OperationType.DEBIT ? -op.getAmount() : op.getAmount()).sum());
+        archivedOperationSegmentRepository.save(segment);
+    }
+}
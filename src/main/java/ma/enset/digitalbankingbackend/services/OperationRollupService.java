@@ -0,0 +1,60 @@
+package ma.enset.digitalbankingbackend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.dtos.DailyOperationTotalsDTO;
+import ma.enset.digitalbankingbackend.repositories.AccountDailyRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+@Service
+@Slf4j
+public class OperationRollupService {
+    private final OperationRollupWriter operationRollupWriter;
+    private final AccountDailyRollupRepository accountDailyRollupRepository;
+    private final int batchSize;
+    /**
+     * Must outlast the longest posting transaction, lock waits included (InnoDB's default
+     * innodb_lock_wait_timeout is 50s). An operation whose id is below the checkpoint when it
+     * finally commits is never rolled up.
+     */
+    private final long settleDelay;
+
+    public OperationRollupService(OperationRollupWriter operationRollupWriter, AccountDailyRollupRepository accountDailyRollupRepository,
+                                  @Value("${bank.rollup.batch-size:5000}") int batchSize,
+                                  @Value("${bank.rollup.settle-delay-ms:120000}") long settleDelay) {
+        this.operationRollupWriter = operationRollupWriter;
+        this.accountDailyRollupRepository = accountDailyRollupRepository;
+        this.batchSize = batchSize;
+        this.settleDelay = settleDelay;
+    }
+
+    @Scheduled(fixedDelayString = "${bank.rollup.interval-ms:5000}")
+    public synchronized void rollup() {
+        Date settledBefore = new Date(System.currentTimeMillis() - settleDelay);
+        long total = 0;
+        int applied;
+        do {
+            applied = operationRollupWriter.applyNextBatch(batchSize, settledBefore);
+            total += applied;
+        } while (applied == batchSize);
+        if (total > 0) {
+            log.debug("Rolled up {} operations", total);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyOperationTotalsDTO> accountDailyTotals(String accountId, LocalDate from, LocalDate to) {
+        return accountDailyRollupRepository.findAccountTotals(accountId, from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyOperationTotalsDTO> customerDailyTotals(Long customerId, LocalDate from, LocalDate to) {
+        return accountDailyRollupRepository.findCustomerTotals(customerId, from, to);
+    }
+}
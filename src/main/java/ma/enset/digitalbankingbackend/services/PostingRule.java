@@ -0,0 +1,15 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+
+public interface PostingRule {
+    void check(String accountId, OperationType type, double amount) throws PostingRejectedException;
+
+    /**
+     * Called when a posting that passed {@link #check} is not applied after all (a later rule
+     * refused it, or its transaction rolled back), so rules that reserve budget in check give it back.
+     */
+    default void released(String accountId, OperationType type, double amount) {
+    }
+}
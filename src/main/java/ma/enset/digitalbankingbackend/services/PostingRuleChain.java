@@ -0,0 +1,54 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+@Service
+public class PostingRuleChain {
+    private final List<PostingRule> rules;
+
+    public PostingRuleChain(ObjectProvider<PostingRule> rules) {
+        this.rules = rules.orderedStream().toList();
+    }
+
+    /**
+     * Rules may reserve budget while checking. If a later rule refuses the posting, the earlier
+     * ones are released right away; inside a transaction they are also released if it rolls back.
+     */
+    public void check(String accountId, OperationType type, double amount) throws PostingRejectedException {
+        for (int i = 0; i < rules.size(); i++) {
+            try {
+                rules.get(i).check(accountId, type, amount);
+            } catch (PostingRejectedException | RuntimeException e) {
+                release(i, accountId, type, amount);
+                throw e;
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(rules.size(), accountId, type, amount);
+                    }
+                }
+            });
+        }
+    }
+
+    public void released(String accountId, OperationType type, double amount) {
+        release(rules.size(), accountId, type, amount);
+    }
+
+    private void release(int count, String accountId, OperationType type, double amount) {
+        for (int i = 0; i < count; i++) {
+            rules.get(i).released(accountId, type, amount);
+        }
+    }
+}
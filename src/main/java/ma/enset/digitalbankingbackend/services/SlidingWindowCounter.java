@@ -0,0 +1,65 @@
+package ma.enset.digitalbankingbackend.services;
+
+/**
+ * Per-account ring of time buckets. Each bucket takes two longs: the bucket epoch packed with the
+ * posting count, and the amount in cents. A bucket whose epoch fell out of the window is simply
+ * ignored and overwritten on reuse, so no cleanup pass is needed. A posting checks and takes its
+ * share of the budget in one step, and gives it back if it is not applied after all.
+ */
+public class SlidingWindowCounter {
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private final long[] buckets;
+    private volatile long lastEpoch;
+
+    public SlidingWindowCounter(int bucketCount) {
+        this.buckets = new long[bucketCount * 2];
+    }
+
+    public synchronized boolean tryAdd(long epoch, long cents, long maxCount, long maxCents) {
+        int bucketCount = buckets.length / 2;
+        long count = 0;
+        long total = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            long bucketEpoch = buckets[2 * i] >>> COUNT_BITS;
+            if (bucketEpoch <= epoch && epoch - bucketEpoch < bucketCount) {
+                count += buckets[2 * i] & COUNT_MASK;
+                total += buckets[2 * i + 1];
+            }
+        }
+        if (count + 1 > maxCount || total + cents > maxCents) {
+            return false;
+        }
+        int slot = (int) (epoch % bucketCount) * 2;
+        if ((buckets[slot] >>> COUNT_BITS) != epoch) {
+            buckets[slot] = epoch << COUNT_BITS;
+            buckets[slot + 1] = 0;
+        }
+        if ((buckets[slot] & COUNT_MASK) < COUNT_MASK) {
+            buckets[slot]++;
+        }
+        buckets[slot + 1] += cents;
+        lastEpoch = epoch;
+        return true;
+    }
+
+    /**
+     * Takes a posting back from the newest bucket in the window that still counts one; a reservation
+     * is released moments after it was made, so that is the bucket it went into or the one just before.
+     */
+    public synchronized void remove(long epoch, long cents) {
+        int bucketCount = buckets.length / 2;
+        for (long e = epoch; e >= 0 && epoch - e < bucketCount; e--) {
+            int slot = (int) (e % bucketCount) * 2;
+            if ((buckets[slot] >>> COUNT_BITS) == e && (buckets[slot] & COUNT_MASK) > 0) {
+                buckets[slot]--;
+                buckets[slot + 1] -= cents;
+                return;
+            }
+        }
+    }
+
+    public long getLastEpoch() {
+        return lastEpoch;
+    }
+}
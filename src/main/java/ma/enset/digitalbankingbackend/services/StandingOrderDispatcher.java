@@ -0,0 +1,133 @@
+package ma.enset.digitalbankingbackend.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.entities.StandingOrder;
+import ma.enset.digitalbankingbackend.enums.StandingOrderStatus;
+import ma.enset.digitalbankingbackend.repositories.StandingOrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Time wheel of standing orders due within the look-ahead window. Each slot covers one tick;
+ * the window never exceeds one turn of the wheel, so a slot only ever holds orders of one round.
+ */
+@Service
+@Slf4j
+public class StandingOrderDispatcher {
+    private final StandingOrderRepository standingOrderRepository;
+    private final StandingOrderService standingOrderService;
+    private final ExecutorService executor;
+    private final Queue<Long>[] wheel;
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private final long tickMillis;
+    private final long windowMillis;
+    private final int batchSize;
+    private final int pageSize;
+    private long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public StandingOrderDispatcher(StandingOrderRepository standingOrderRepository, StandingOrderService standingOrderService,
+                                   @Value("${bank.standing-orders.tick-ms:1000}") long tickMillis,
+                                   @Value("${bank.standing-orders.window-ms:300000}") long windowMillis,
+                                   @Value("${bank.standing-orders.workers:8}") int workers,
+                                   @Value("${bank.standing-orders.batch-size:500}") int batchSize,
+                                   @Value("${bank.standing-orders.page-size:10000}") int pageSize) {
+        this.standingOrderRepository = standingOrderRepository;
+        this.standingOrderService = standingOrderService;
+        this.tickMillis = tickMillis;
+        this.windowMillis = windowMillis;
+        this.batchSize = batchSize;
+        this.pageSize = pageSize;
+        this.executor = Executors.newFixedThreadPool(workers);
+        this.wheel = new Queue[(int) (windowMillis / tickMillis) + 2];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = System.currentTimeMillis() / tickMillis - 1;
+    }
+
+    @Scheduled(fixedDelayString = "${bank.standing-orders.load-interval-ms:60000}")
+    public void loadUpcoming() {
+        long now = System.currentTimeMillis();
+        Date until = new Date(now + windowMillis);
+        long loaded = 0;
+        Long lastId = 0L;
+        List<StandingOrder> page;
+        do {
+            page = standingOrderRepository.findDue(StandingOrderStatus.ACTIVE, until, lastId, PageRequest.of(0, pageSize));
+            for (StandingOrder standingOrder : page) {
+                if (scheduled.add(standingOrder.getId())) {
+                    schedule(standingOrder.getId(), standingOrder.getDueAt().getTime() / tickMillis);
+                    loaded++;
+                }
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+        if (loaded > 0) {
+            log.info("Scheduled {} standing orders due before {}", loaded, until);
+        }
+    }
+
+    /**
+     * Overdue orders and orders due in the tick being drained go to the next tick still to be drained.
+     */
+    private synchronized void schedule(Long standingOrderId, long dueTick) {
+        long tick = Math.max(dueTick, lastTick + 1);
+        wheel[(int) (tick % wheel.length)].add(standingOrderId);
+    }
+
+    @Scheduled(fixedRateString = "${bank.standing-orders.tick-ms:1000}")
+    public synchronized void tick() {
+        long currentTick = System.currentTimeMillis() / tickMillis;
+        for (long tick = lastTick + 1; tick <= currentTick; tick++) {
+            Queue<Long> slot = wheel[(int) (tick % wheel.length)];
+            List<Long> batch = new ArrayList<>(batchSize);
+            Long standingOrderId;
+            while ((standingOrderId = slot.poll()) != null) {
+                batch.add(standingOrderId);
+                if (batch.size() == batchSize) {
+                    dispatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                dispatch(batch);
+            }
+        }
+        lastTick = currentTick;
+    }
+
+    private void dispatch(List<Long> batch) {
+        executor.execute(() -> {
+            for (Long standingOrderId : batch) {
+                try {
+                    standingOrderService.execute(standingOrderId);
+                } catch (Exception e) {
+                    standingOrderService.recordFailure(standingOrderId, e);
+                } finally {
+                    scheduled.remove(standingOrderId);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+}
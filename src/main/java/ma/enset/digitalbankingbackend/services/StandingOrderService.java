@@ -0,0 +1,132 @@
+package ma.enset.digitalbankingbackend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.dtos.StandingOrderDTO;
+import ma.enset.digitalbankingbackend.entities.StandingOrder;
+import ma.enset.digitalbankingbackend.enums.StandingOrderStatus;
+import ma.enset.digitalbankingbackend.exceptions.*;
+import ma.enset.digitalbankingbackend.mappers.BankAccountMapperImpl;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import ma.enset.digitalbankingbackend.repositories.StandingOrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+@Service
+@Transactional
+@Slf4j
+public class StandingOrderService {
+    private final StandingOrderRepository standingOrderRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final BankAccountService bankAccountService;
+    private final BankAccountMapperImpl bankAccountMapper;
+    private final int maxAttempts;
+    private final long retryDelay;
+
+    public StandingOrderService(StandingOrderRepository standingOrderRepository, BankAccountRepository bankAccountRepository,
+                                BankAccountService bankAccountService, BankAccountMapperImpl bankAccountMapper,
+                                @Value("${bank.standing-orders.max-attempts:3}") int maxAttempts,
+                                @Value("${bank.standing-orders.retry-delay-ms:3600000}") long retryDelay) {
+        this.standingOrderRepository = standingOrderRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankAccountService = bankAccountService;
+        this.bankAccountMapper = bankAccountMapper;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+    }
+
+    public StandingOrderDTO saveStandingOrder(StandingOrderDTO standingOrderDTO) throws BankAccountNotFoundException {
+        if (!bankAccountRepository.existsById(standingOrderDTO.getSourceAccountId())
+                || !bankAccountRepository.existsById(standingOrderDTO.getDestinationAccountId())) {
+            throw new BankAccountNotFoundException("Bank Account Not Found");
+        }
+        StandingOrder standingOrder = new StandingOrder();
+        standingOrder.setSourceAccountId(standingOrderDTO.getSourceAccountId());
+        standingOrder.setDestinationAccountId(standingOrderDTO.getDestinationAccountId());
+        standingOrder.setAmount(standingOrderDTO.getAmount());
+        standingOrder.setDescription(standingOrderDTO.getDescription());
+        standingOrder.setFrequency(standingOrderDTO.getFrequency());
+        Date firstExecution = standingOrderDTO.getNextExecution() != null ? standingOrderDTO.getNextExecution() : new Date();
+        standingOrder.setNextExecution(firstExecution);
+        standingOrder.setDueAt(firstExecution);
+        standingOrder.setDayOfMonth(LocalDateTime.ofInstant(firstExecution.toInstant(), ZoneId.systemDefault()).getDayOfMonth());
+        standingOrder.setEndDate(standingOrderDTO.getEndDate());
+        standingOrder.setStatus(StandingOrderStatus.ACTIVE);
+        return bankAccountMapper.fromStandingOrder(standingOrderRepository.save(standingOrder));
+    }
+
+    @Transactional(readOnly = true)
+    public List<StandingOrderDTO> accountStandingOrders(String accountId) {
+        return standingOrderRepository.findBySourceAccountId(accountId).stream().map(bankAccountMapper::fromStandingOrder).toList();
+    }
+
+    public void cancelStandingOrder(Long standingOrderId) throws StandingOrderNotFoundException {
+        StandingOrder standingOrder = standingOrderRepository.findById(standingOrderId)
+                .orElseThrow(() -> new StandingOrderNotFoundException("Standing order " + standingOrderId + " not found"));
+        standingOrder.setStatus(StandingOrderStatus.CANCELLED);
+    }
+
+    /**
+     * The order row stays locked until the transfer commits, so when several nodes pick up the same
+     * order the others wait and then find it already advanced.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void execute(Long standingOrderId) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException {
+        StandingOrder standingOrder = standingOrderRepository.findForUpdate(standingOrderId).orElse(null);
+        if (standingOrder == null || standingOrder.getStatus() != StandingOrderStatus.ACTIVE || standingOrder.getDueAt().after(new Date())) {
+            return;
+        }
+        bankAccountService.transfer(standingOrder.getSourceAccountId(), standingOrder.getDestinationAccountId(), standingOrder.getAmount());
+        standingOrder.setLastError(null);
+        advance(standingOrder);
+    }
+
+    public void recordFailure(Long standingOrderId, Exception failure) {
+        if (failure instanceof PessimisticLockingFailureException) {
+            log.debug("Standing order {} is being executed elsewhere", standingOrderId);
+            return;
+        }
+        StandingOrder standingOrder = standingOrderRepository.findForUpdate(standingOrderId).orElse(null);
+        if (standingOrder == null || standingOrder.getStatus() != StandingOrderStatus.ACTIVE || standingOrder.getDueAt().after(new Date())) {
+            return;
+        }
+        standingOrder.setAttempts(standingOrder.getAttempts() + 1);
+        standingOrder.setLastError(failure.getMessage());
+        boolean retryable = failure instanceof BalanceNotSufficentException || failure instanceof PostingRejectedException;
+        if (!retryable) {
+            standingOrder.setStatus(StandingOrderStatus.FAILED);
+        } else if (standingOrder.getAttempts() < maxAttempts) {
+            standingOrder.setDueAt(new Date(System.currentTimeMillis() + retryDelay));
+        } else {
+            log.warn("Standing order {} skipped its {} execution after {} attempts", standingOrderId, standingOrder.getNextExecution(), standingOrder.getAttempts());
+            advance(standingOrder);
+        }
+    }
+
+    private void advance(StandingOrder standingOrder) {
+        LocalDateTime current = LocalDateTime.ofInstant(standingOrder.getNextExecution().toInstant(), ZoneId.systemDefault());
+        LocalDateTime next = switch (standingOrder.getFrequency()) {
+            case DAILY -> current.plusDays(1);
+            case WEEKLY -> current.plusWeeks(1);
+            case MONTHLY -> {
+                LocalDateTime month = current.plusMonths(1);
+                int dayOfMonth = standingOrder.getDayOfMonth() > 0 ? standingOrder.getDayOfMonth() : current.getDayOfMonth();
+                yield month.withDayOfMonth(Math.min(dayOfMonth, YearMonth.from(month).lengthOfMonth()));
+            }
+        };
+        Date nextExecution = Date.from(next.atZone(ZoneId.systemDefault()).toInstant());
+        standingOrder.setNextExecution(nextExecution);
+        standingOrder.setDueAt(nextExecution);
+        standingOrder.setAttempts(0);
+        if (standingOrder.getEndDate() != null && nextExecution.after(standingOrder.getEndDate())) {
+            standingOrder.setStatus(StandingOrderStatus.COMPLETED);
+        }
+    }
+}
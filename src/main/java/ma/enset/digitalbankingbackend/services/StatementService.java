@@ -0,0 +1,111 @@
+package ma.enset.digitalbankingbackend.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.dtos.StatementRunDTO;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class StatementService {
+    private final BankAccountRepository bankAccountRepository;
+    private final StatementWriter statementWriter;
+    private final Path directory;
+    private final int workers;
+    private final int pageSize;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "statement-run"));
+
+    public StatementService(BankAccountRepository bankAccountRepository, StatementWriter statementWriter,
+                            @Value("${bank.statements.dir:statements}") String directory,
+                            @Value("${bank.statements.workers:4}") int workers,
+                            @Value("${bank.statements.page-size:1000}") int pageSize) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.statementWriter = statementWriter;
+        this.directory = Path.of(directory);
+        this.workers = workers;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Hands the run to its own thread so the scheduler is not held for the hours a run can take.
+     */
+    @Scheduled(cron = "${bank.statements.cron:0 0 2 1 * *}")
+    public void generatePreviousMonth() {
+        YearMonth month = YearMonth.now().minusMonths(1);
+        runner.execute(() -> {
+            try {
+                generateMonthlyStatements(month);
+            } catch (InterruptedException e) {
+                log.warn("Statement run for {} interrupted", month);
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        runner.shutdownNow();
+    }
+
+    public synchronized StatementRunDTO generateMonthlyStatements(YearMonth month) throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicLong generated = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        Semaphore inFlight = new Semaphore(workers * 4);
+        try {
+            String lastId = "";
+            List<String> accountIds;
+            do {
+                accountIds = bankAccountRepository.findIdsAfter(lastId, PageRequest.of(0, pageSize));
+                for (String accountId : accountIds) {
+                    inFlight.acquire();
+                    executor.execute(() -> {
+                        try {
+                            if (statementWriter.writeStatement(accountId, month, directory)) {
+                                generated.incrementAndGet();
+                            } else {
+                                skipped.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            log.error("Failed to generate {} statement for account {}", month, accountId, e);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                if (!accountIds.isEmpty()) {
+                    lastId = accountIds.get(accountIds.size() - 1);
+                }
+            } while (accountIds.size() == pageSize);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        StatementRunDTO statementRunDTO = new StatementRunDTO();
+        statementRunDTO.setMonth(month.toString());
+        statementRunDTO.setGenerated(generated.get());
+        statementRunDTO.setSkipped(skipped.get());
+        statementRunDTO.setFailed(failed.get());
+        double minutes = (System.nanoTime() - start) / 60_000_000_000.0;
+        statementRunDTO.setStatementsPerMinute(minutes > 0 ? generated.get() / minutes : 0);
+        log.info("Statements for {}: {} generated, {} skipped, {} failed, {} statements/min",
+                month, generated.get(), skipped.get(), failed.get(), (long) statementRunDTO.getStatementsPerMinute());
+        return statementRunDTO;
+    }
+}
@@ -0,0 +1,106 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.AccountOperationDTO;
+import ma.enset.digitalbankingbackend.entities.BankAccount;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.BankAccountNotFoundException;
+import ma.enset.digitalbankingbackend.repositories.AccountOperationRepository;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Not read-only on purpose: read-only transactions are routed to a replica, and opening and
+ * closing balances derived from a lagging replica would not match the primary's rows.
+ */
+@Service
+@Transactional
+public class StatementWriter {
+    private final BankAccountRepository bankAccountRepository;
+    private final AccountOperationRepository accountOperationRepository;
+    private final OperationArchiveService operationArchiveService;
+
+    public StatementWriter(BankAccountRepository bankAccountRepository, AccountOperationRepository accountOperationRepository,
+                           OperationArchiveService operationArchiveService) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.accountOperationRepository = accountOperationRepository;
+        this.operationArchiveService = operationArchiveService;
+    }
+
+    public static Path statementPath(Path directory, YearMonth month, String accountId) {
+        return directory.resolve(month.toString()).resolve(accountId + ".csv");
+    }
+
+    /**
+     * Operations older than the archive cutoff only live in the monthly segments, so balances and
+     * lines combine both. Archiving takes everything before a date, so archived operations always
+     * come before the ones still in the table.
+     */
+    public boolean writeStatement(String accountId, YearMonth month, Path directory) throws IOException, BankAccountNotFoundException {
+        Path target = statementPath(directory, month, accountId);
+        if (Files.exists(target)) {
+            return false;
+        }
+        BankAccount bankAccount = bankAccountRepository.findById(accountId).orElseThrow(() -> new BankAccountNotFoundException("Bank Account Not Found"));
+        Date from = Date.from(month.atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date to = Date.from(month.plusMonths(1).atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        if (!bankAccount.getCreatedAt().before(to)) {
+            return false;
+        }
+        double openingBalance = bankAccount.getBalance() - accountOperationRepository.sumNetAmountSince(accountId, from)
+                - operationArchiveService.archivedNetAmountSince(accountId, month);
+        double closingBalance = bankAccount.getBalance() - accountOperationRepository.sumNetAmountSince(accountId, to)
+                - operationArchiveService.archivedNetAmountSince(accountId, month.plusMonths(1));
+
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(accountId + ".csv.tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+             Stream<AccountOperationDTO> operations = Stream.concat(operationArchiveService.readArchivedMonth(accountId, month).stream(),
+                     accountOperationRepository.streamByBankAccountIdAndPeriod(accountId, from, to))) {
+            writer.write("account," + accountId + "\n");
+            writer.write("period," + month + "\n");
+            writer.write("currency," + (bankAccount.getCurrency() == null ? "" : bankAccount.getCurrency()) + "\n");
+            writer.write("openingBalance," + format(openingBalance) + "\n");
+            writer.write("date,type,amount,description,balance\n");
+            double[] running = {openingBalance};
+            operations.forEach(op -> {
+                running[0] += op.getType() == OperationType.DEBIT ? -op.getAmount() : op.getAmount();
+                try {
+                    writer.write(op.getOperationDate().toInstant() + "," + op.getType() + "," + format(op.getAmount()) + ","
+                            + quote(op.getDescription()) + "," + format(running[0]) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.write("closingBalance," + format(closingBalance) + "\n");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    private static String format(double amount) {
+        return String.format(Locale.ROOT, "%.2f", amount);
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
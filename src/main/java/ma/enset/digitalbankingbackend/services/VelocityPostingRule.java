@@ -0,0 +1,74 @@
+package ma.enset.digitalbankingbackend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@ConditionalOnProperty(name = "bank.velocity.enabled", havingValue = "true")
+@Slf4j
+public class VelocityPostingRule implements PostingRule {
+    private final Map<String, SlidingWindowCounter> windows = new ConcurrentHashMap<>();
+    private final long maxDebits;
+    private final long maxAmountCents;
+    private final int buckets;
+    private final long bucketMillis;
+    private final int maxAccounts;
+
+    public VelocityPostingRule(@Value("${bank.velocity.max-debits:100}") long maxDebits,
+                               @Value("${bank.velocity.max-amount:1000000}") double maxAmount,
+                               @Value("${bank.velocity.window-ms:3600000}") long windowMillis,
+                               @Value("${bank.velocity.buckets:10}") int buckets,
+                               @Value("${bank.velocity.max-accounts:10000000}") int maxAccounts) {
+        this.maxDebits = maxDebits;
+        this.maxAmountCents = Math.round(maxAmount * 100);
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.maxAccounts = maxAccounts;
+    }
+
+    @Override
+    public void check(String accountId, OperationType type, double amount) throws PostingRejectedException {
+        if (type != OperationType.DEBIT) {
+            return;
+        }
+        SlidingWindowCounter window = windows.get(accountId);
+        if (window == null) {
+            if (windows.size() >= maxAccounts) {
+                evictIdleWindows();
+            }
+            if (windows.size() >= maxAccounts) {
+                log.warn("Velocity tracking is full ({} accounts), refusing debit on account {}", maxAccounts, accountId);
+                throw new PostingRejectedException("Velocity limit exceeded for account " + accountId);
+            }
+            window = windows.computeIfAbsent(accountId, id -> new SlidingWindowCounter(buckets));
+        }
+        if (!window.tryAdd(System.currentTimeMillis() / bucketMillis, Math.round(amount * 100), maxDebits, maxAmountCents)) {
+            throw new PostingRejectedException("Velocity limit exceeded for account " + accountId);
+        }
+    }
+
+    @Override
+    public void released(String accountId, OperationType type, double amount) {
+        if (type != OperationType.DEBIT) {
+            return;
+        }
+        SlidingWindowCounter window = windows.get(accountId);
+        if (window != null) {
+            window.remove(System.currentTimeMillis() / bucketMillis, Math.round(amount * 100));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bank.velocity.sweep-interval-ms:60000}")
+    public synchronized void evictIdleWindows() {
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        windows.values().removeIf(window -> epoch - window.getLastEpoch() >= buckets);
+    }
+}
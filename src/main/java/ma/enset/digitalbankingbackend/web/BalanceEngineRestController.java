@@ -0,0 +1,50 @@
+package ma.enset.digitalbankingbackend.web;
+
+import ma.enset.digitalbankingbackend.dtos.CreditDTO;
+import ma.enset.digitalbankingbackend.dtos.DebitDTO;
+import ma.enset.digitalbankingbackend.dtos.TransferRequestDTO;
+import ma.enset.digitalbankingbackend.services.BalanceEngine;
+import ma.enset.digitalbankingbackend.services.BalanceJournalWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/engine")
+@ConditionalOnProperty(name = "bank.engine.enabled", havingValue = "true")
+public class BalanceEngineRestController {
+    private final BalanceEngine balanceEngine;
+    private final BalanceJournalWriter balanceJournalWriter;
+
+    public BalanceEngineRestController(BalanceEngine balanceEngine, BalanceJournalWriter balanceJournalWriter) {
+        this.balanceEngine = balanceEngine;
+        this.balanceJournalWriter = balanceJournalWriter;
+    }
+
+    @GetMapping("/accounts/{accountId}/balance")
+    public CompletableFuture<Double> getBalance(@PathVariable String accountId) {
+        return balanceEngine.getBalance(accountId);
+    }
+
+    @PostMapping("/accounts/debit")
+    public CompletableFuture<DebitDTO> debit(@RequestBody DebitDTO debitDTO) {
+        return balanceEngine.debit(debitDTO.getAccountId(), debitDTO.getAmount(), debitDTO.getDescription()).thenApply(balance -> debitDTO);
+    }
+
+    @PostMapping("/accounts/credit")
+    public CompletableFuture<CreditDTO> credit(@RequestBody CreditDTO creditDTO) {
+        return balanceEngine.credit(creditDTO.getAccountId(), creditDTO.getAmount(), creditDTO.getDescription()).thenApply(balance -> creditDTO);
+    }
+
+    @PostMapping("/accounts/transfer")
+    public CompletableFuture<Void> transfer(@RequestBody TransferRequestDTO transferRequestDTO) {
+        return balanceEngine.transfer(transferRequestDTO.getAccountSource(), transferRequestDTO.getAccountDestination(), transferRequestDTO.getAmount()).thenApply(balance -> null);
+    }
+
+    @GetMapping("/journal/rejected")
+    public List<BalanceJournalWriter.Entry> rejectedJournalEntries() {
+        return balanceJournalWriter.getRejectedEntries();
+    }
+}
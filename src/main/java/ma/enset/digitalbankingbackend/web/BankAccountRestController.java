@@ -3,55 +3,93 @@ package ma.enset.digitalbankingbackend.web;
 import ma.enset.digitalbankingbackend.dtos.*;
 import ma.enset.digitalbankingbackend.exceptions.BalanceNotSufficentException;
 import ma.enset.digitalbankingbackend.exceptions.BankAccountNotFoundException;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import ma.enset.digitalbankingbackend.services.AccountStatusService;
 import ma.enset.digitalbankingbackend.services.BankAccountService;
+import ma.enset.digitalbankingbackend.services.OperationRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 public class BankAccountRestController {
     private final BankAccountService bankAccountService;
+    private final OperationRollupService operationRollupService;
+    private final AccountStatusService accountStatusService;
 
-    public BankAccountRestController(BankAccountService bankAccountService) {
+    public BankAccountRestController(BankAccountService bankAccountService, OperationRollupService operationRollupService, AccountStatusService accountStatusService) {
         this.bankAccountService = bankAccountService;
+        this.operationRollupService = operationRollupService;
+        this.accountStatusService = accountStatusService;
     }
 
     @GetMapping("/accounts/{accountId}")
-    public BankAccountDTO getBankAccount(@PathVariable String accountId) throws BankAccountNotFoundException {
+    public BankAccountDTO getBankAccount(@PathVariable String accountId, WebRequest request) throws BankAccountNotFoundException {
+        if (request.checkNotModified(ETags.weak(bankAccountService.bankAccountVersion(accountId)))) {
+            return null;
+        }
         return bankAccountService.getBankAccount(accountId);
     }
 
     @GetMapping("/accounts")
-    public List<BankAccountDTO> listAccounts() {
+    public List<BankAccountDTO> listAccounts(WebRequest request) {
+        if (request.checkNotModified(ETags.weak(bankAccountService.bankAccountsVersion()))) {
+            return null;
+        }
         return bankAccountService.bankAccountList();
     }
 
     @GetMapping("accounts/{accountId}/operations")
-    public List<AccountOperationDTO> getHistory(@PathVariable String accountId) {
+    public List<AccountOperationDTO> getHistory(@PathVariable String accountId, WebRequest request) {
+        if (request.checkNotModified(ETags.weak(bankAccountService.bankAccountVersion(accountId)))) {
+            return null;
+        }
         return bankAccountService.accountHistory(accountId);
     }
 
     @GetMapping("accounts/{accountId}/pageOperations")
     public AccountHistoryDTO getAccountHistory(@PathVariable String accountId,
                                                @RequestParam(name = "page", defaultValue = "0") int page,
-                                               @RequestParam(name = "size", defaultValue = "5") int size) throws BankAccountNotFoundException {
+                                               @RequestParam(name = "size", defaultValue = "5") int size,
+                                               WebRequest request) throws BankAccountNotFoundException {
+        if (request.checkNotModified(ETags.weak(bankAccountService.bankAccountVersion(accountId)))) {
+            return null;
+        }
         return bankAccountService.getAccountHistory(accountId, page, size);
     }
 
+    @GetMapping("accounts/{accountId}/daily")
+    public List<DailyOperationTotalsDTO> getDailyTotals(@PathVariable String accountId,
+                                                        @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return operationRollupService.accountDailyTotals(accountId, from, to);
+    }
+
+    @PutMapping("/accounts/status")
+    @PreAuthorize("hasAuthority('SCOPE_ROLE_ADMIN')")
+    public AccountStatusUpdateDTO updateStatus(@RequestBody AccountStatusUpdateDTO accountStatusUpdateDTO) {
+        accountStatusUpdateDTO.setUpdated(accountStatusService.updateStatus(accountStatusUpdateDTO.getAccountIds(), accountStatusUpdateDTO.getStatus()));
+        return accountStatusUpdateDTO;
+    }
+
     @PostMapping("/accounts/debit")
-    public DebitDTO debit(@RequestBody DebitDTO debitDTO) throws BankAccountNotFoundException, BalanceNotSufficentException {
+    public DebitDTO debit(@RequestBody DebitDTO debitDTO) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException {
         this.bankAccountService.debit(debitDTO.getAccountId(), debitDTO.getAmount(), debitDTO.getDescription());
         return debitDTO;
     }
 
     @PostMapping("/accounts/credit")
-    public CreditDTO credit(@RequestBody CreditDTO creditDTO) throws BankAccountNotFoundException, BalanceNotSufficentException {
+    public CreditDTO credit(@RequestBody CreditDTO creditDTO) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException {
         this.bankAccountService.credit(creditDTO.getAccountId(), creditDTO.getAmount(), creditDTO.getDescription());
         return creditDTO;
     }
 
     @PostMapping("/accounts/transfer")
-    public void transfer(@RequestBody TransferRequestDTO transferRequestDTO) throws BankAccountNotFoundException, BalanceNotSufficentException {
+    public void transfer(@RequestBody TransferRequestDTO transferRequestDTO) throws BankAccountNotFoundException, BalanceNotSufficentException, PostingRejectedException {
         this.bankAccountService.transfer(transferRequestDTO.getAccountSource(), transferRequestDTO.getAccountDestination(), transferRequestDTO.getAmount());
     }
 }
@@ -2,52 +2,100 @@ package ma.enset.digitalbankingbackend.web;
 
 import lombok.AllArgsConstructor;
 import ma.enset.digitalbankingbackend.dtos.CustomerDTO;
+import ma.enset.digitalbankingbackend.dtos.CustomerPortfolioDTO;
+import ma.enset.digitalbankingbackend.dtos.DailyOperationTotalsDTO;
+import ma.enset.digitalbankingbackend.dtos.ImportReportDTO;
+import ma.enset.digitalbankingbackend.dtos.OffboardingReportDTO;
 import ma.enset.digitalbankingbackend.exceptions.CustomerNotFoundException;
+import ma.enset.digitalbankingbackend.exceptions.OffboardingRejectedException;
 import ma.enset.digitalbankingbackend.services.BankAccountService;
+import ma.enset.digitalbankingbackend.services.CustomerImportService;
+import ma.enset.digitalbankingbackend.services.CustomerOffboardingService;
+import ma.enset.digitalbankingbackend.services.OperationRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @AllArgsConstructor
 public class CustomerRestController {
     private BankAccountService bankAccountService;
+    private CustomerImportService customerImportService;
+    private OperationRollupService operationRollupService;
+    private CustomerOffboardingService customerOffboardingService;
 
     @GetMapping("/customers")
     @PreAuthorize("hasAuthority('SCOPE_ROLE_USER')")
-    public List<CustomerDTO> customers(){
+    public List<CustomerDTO> customers(WebRequest request){
+        if (request.checkNotModified(ETags.weak(bankAccountService.customersVersion()))) {
+            return null;
+        }
         return bankAccountService.listCustomers();
     }
 
     @GetMapping("/customers/search")
     @PreAuthorize("hasAuthority('SCOPE_ROLE_USER')")
-    public List<CustomerDTO> searchCustomers(@RequestParam(name="keyword", defaultValue = "") String keyword) {
+    public List<CustomerDTO> searchCustomers(@RequestParam(name="keyword", defaultValue = "") String keyword, WebRequest request) {
+        if (request.checkNotModified(ETags.weak(bankAccountService.customersVersion()))) {
+            return null;
+        }
         return bankAccountService.searchCustomers(keyword);
     }
 
     @GetMapping("/customers/{id}")
     @PreAuthorize("hasAuthority('SCOPE_ROLE_USER')")
-    public CustomerDTO getCustomer(@PathVariable(name = "id") Long id) throws CustomerNotFoundException {
+    public CustomerDTO getCustomer(@PathVariable(name = "id") Long id, WebRequest request) throws CustomerNotFoundException {
+        if (request.checkNotModified(ETags.weak(bankAccountService.customerVersion(id)))) {
+            return null;
+        }
         return bankAccountService.getCustomer(id);
     }
 
+    @GetMapping("/customers/{id}/portfolio")
+    @PreAuthorize("hasAuthority('SCOPE_ROLE_USER')")
+    public CustomerPortfolioDTO getCustomerPortfolio(@PathVariable(name = "id") Long id,
+                                                     @RequestParam(name = "operations", defaultValue = "5") int operations) throws CustomerNotFoundException {
+        return bankAccountService.getCustomerPortfolio(id, operations);
+    }
+
+    @GetMapping("/customers/{id}/daily")
+    @PreAuthorize("hasAuthority('SCOPE_ROLE_USER')")
+    public List<DailyOperationTotalsDTO> getDailyTotals(@PathVariable(name = "id") Long id,
+                                                        @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return operationRollupService.customerDailyTotals(id, from, to);
+    }
+
     @PostMapping("/customers")
     @PreAuthorize("hasAuthority('SCOPE_ROLE_ADMIN')")
     public CustomerDTO saveCustomer(@RequestBody CustomerDTO customerDTO){
         return bankAccountService.saveCustomer(customerDTO);
     }
 
+    @PostMapping(value = "/customers/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('SCOPE_ROLE_ADMIN')")
+    public ImportReportDTO importCustomers(InputStream input,
+                                           @RequestParam(name = "resumeFrom", defaultValue = "0") long resumeFrom) throws IOException {
+        return customerImportService.importCustomers(input, resumeFrom);
+    }
+
     @PutMapping ("/customers/{customerId}")
     @PreAuthorize("hasAuthority('SCOPE_ROLE_ADMIN')")
-    public CustomerDTO updateCustomer(@PathVariable Long customerId,@RequestBody CustomerDTO customerDTO) {
+    public CustomerDTO updateCustomer(@PathVariable Long customerId,@RequestBody CustomerDTO customerDTO) throws CustomerNotFoundException {
         customerDTO.setId(customerId);
         return bankAccountService.updateCustomer(customerDTO);
     }
 
     @DeleteMapping("/customers/{id}")
     @PreAuthorize("hasAuthority('SCOPE_ROLE_ADMIN')")
-    public void deleteCustomer(@PathVariable Long id) {
-        bankAccountService.deleteCustomer(id);
+    public OffboardingReportDTO deleteCustomer(@PathVariable Long id,
+                                               @RequestParam(name = "transferTo", required = false) Long transferTo) throws CustomerNotFoundException, OffboardingRejectedException, IOException, InterruptedException {
+        return customerOffboardingService.deleteCustomer(id, transferTo);
     }
 }
@@ -0,0 +1,13 @@
+package ma.enset.digitalbankingbackend.web;
+
+/**
+ * Weak validators: Tomcat skips compression for responses carrying a strong ETag.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    static String weak(String version) {
+        return version == null ? null : "W/\"" + version + "\"";
+    }
+}
@@ -0,0 +1,37 @@
+package ma.enset.digitalbankingbackend.web;
+
+import ma.enset.digitalbankingbackend.dtos.StandingOrderDTO;
+import ma.enset.digitalbankingbackend.exceptions.BankAccountNotFoundException;
+import ma.enset.digitalbankingbackend.exceptions.StandingOrderNotFoundException;
+import ma.enset.digitalbankingbackend.services.StandingOrderService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+public class StandingOrderRestController {
+    private final StandingOrderService standingOrderService;
+
+    public StandingOrderRestController(StandingOrderService standingOrderService) {
+        this.standingOrderService = standingOrderService;
+    }
+
+    @PostMapping("/standing-orders")
+    @PreAuthorize("hasAuthority('SCOPE_ROLE_ADMIN')")
+    public StandingOrderDTO saveStandingOrder(@RequestBody StandingOrderDTO standingOrderDTO) throws BankAccountNotFoundException {
+        return standingOrderService.saveStandingOrder(standingOrderDTO);
+    }
+
+    @GetMapping("/accounts/{accountId}/standing-orders")
+    @PreAuthorize("hasAuthority('SCOPE_ROLE_USER')")
+    public List<StandingOrderDTO> getStandingOrders(@PathVariable String accountId) {
+        return standingOrderService.accountStandingOrders(accountId);
+    }
+
+    @DeleteMapping("/standing-orders/{id}")
+    @PreAuthorize("hasAuthority('SCOPE_ROLE_ADMIN')")
+    public void cancelStandingOrder(@PathVariable Long id) throws StandingOrderNotFoundException {
+        standingOrderService.cancelStandingOrder(id);
+    }
+}
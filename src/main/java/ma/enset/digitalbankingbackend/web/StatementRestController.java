@@ -0,0 +1,34 @@
+package ma.enset.digitalbankingbackend.web;
+
+import ma.enset.digitalbankingbackend.dtos.StatementRunDTO;
+import ma.enset.digitalbankingbackend.services.StatementService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+@RestController
+public class StatementRestController {
+    private final StatementService statementService;
+
+    public StatementRestController(StatementService statementService) {
+        this.statementService = statementService;
+    }
+
+    @PostMapping("/statements/{month}")
+    @PreAuthorize("hasAuthority('SCOPE_ROLE_ADMIN')")
+    public StatementRunDTO generateStatements(@PathVariable String month) throws InterruptedException {
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid month " + month + ", expected yyyy-MM");
+        }
+        return statementService.generateMonthlyStatements(yearMonth);
+    }
+}
@@ -0,0 +1,104 @@
+package ma.enset.digitalbankingbackend.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTests {
+    private static final long READ_YOUR_WRITES_WINDOW = 300;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", node("replica0"));
+        replicas.put("replica-1", node("replica1"));
+        replicas.put("replica-2", new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable", "sa", ""));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(node("primary"), replicas, READ_YOUR_WRITES_WINDOW);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsRoundRobinOverHealthyReplicas() {
+        assertThat(readOnlyNode()).isEqualTo("replica0");
+        assertThat(readOnlyNode()).isEqualTo("replica1");
+        assertThat(readOnlyNode()).isEqualTo("replica0");
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() {
+        assertThat(readWrite.<String>execute(status -> currentNode())).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFollowingAWriteStayOnPrimaryUntilTheWindowExpires() throws InterruptedException {
+        authenticate("admin");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set writes = writes + 1"));
+        assertThat(readOnlyNode()).isEqualTo("primary");
+        Thread.sleep(READ_YOUR_WRITES_WINDOW + 50);
+        assertThat(readOnlyNode()).startsWith("replica");
+    }
+
+    @Test
+    void writesOfOtherClientsDoNotPinReads() {
+        authenticate("admin");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set writes = writes + 1"));
+        authenticate("user");
+        assertThat(readOnlyNode()).startsWith("replica");
+    }
+
+    @Test
+    void writesWithoutPrincipalAreNotTracked() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set writes = writes + 1"));
+        assertThat(readOnlyNode()).startsWith("replica");
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> currentNode());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource node(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop table if exists node");
+        jdbcTemplate.execute("create table node (name varchar(20), writes int)");
+        jdbcTemplate.update("insert into node values (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,94 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.entities.AccountOperation;
+import ma.enset.digitalbankingbackend.entities.CurrentAccount;
+import ma.enset.digitalbankingbackend.enums.AccountStatus;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import ma.enset.digitalbankingbackend.repositories.AccountOperationRepository;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "bank.seed.enabled=false",
+        "bank.dormancy.months=12",
+        "bank.dormancy.page-size=2"
+})
+@Import({AccountStatusService.class, AccountDormancyService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountStatusTests {
+    private static final Date TWO_YEARS_AGO = Date.from(Instant.now().minus(730, ChronoUnit.DAYS));
+
+    @Autowired
+    private AccountStatusService accountStatusService;
+    @Autowired
+    private AccountDormancyService accountDormancyService;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private AccountOperationRepository accountOperationRepository;
+
+    @Test
+    void suspendedAccountsRefusePostingsOnceTheChangeIsCommitted() throws Exception {
+        String accountId = newAccount("status-1", new Date(), AccountStatus.ACTIVATED, null);
+        accountStatusService.check(accountId, OperationType.DEBIT, 10);
+
+        accountStatusService.updateStatus(List.of(accountId), AccountStatus.SUSPENDED);
+
+        assertThatThrownBy(() -> accountStatusService.check(accountId, OperationType.CREDIT, 10)).isInstanceOf(PostingRejectedException.class);
+        accountStatusService.updateStatus(List.of(accountId), AccountStatus.ACTIVATED);
+        accountStatusService.check(accountId, OperationType.CREDIT, 10);
+    }
+
+    @Test
+    void dormancyScanCoversEveryIdFormatAndSparesRecentActivity() throws Exception {
+        List<String> dormant = List.of(
+                newAccount("0b9e3c1e-5a44-4d1f-9a0e-2f6c1d7e8a90", TWO_YEARS_AGO, AccountStatus.CREATED, null),
+                newAccount("ACC-000123", TWO_YEARS_AGO, AccountStatus.CREATED, null),
+                newAccount("f", TWO_YEARS_AGO, AccountStatus.ACTIVATED, TWO_YEARS_AGO),
+                newAccount("legacy/42", TWO_YEARS_AGO, null, null),
+                newAccount("zz-9", TWO_YEARS_AGO, AccountStatus.CREATED, null));
+        String created = newAccount("new-account", new Date(), AccountStatus.CREATED, null);
+        String reactivated = newAccount("reactivated", TWO_YEARS_AGO, AccountStatus.ACTIVATED, new Date());
+        String active = newAccount("active", TWO_YEARS_AGO, AccountStatus.ACTIVATED, null);
+        AccountOperation operation = new AccountOperation();
+        operation.setBankAccount(bankAccountRepository.getReferenceById(active));
+        operation.setOperationDate(new Date());
+        operation.setAmount(10);
+        operation.setType(OperationType.CREDIT);
+        accountOperationRepository.save(operation);
+
+        assertThat(accountDormancyService.suspendDormantAccounts()).isEqualTo(dormant.size());
+
+        dormant.forEach(id -> assertThat(bankAccountRepository.findStatusById(id)).contains(AccountStatus.SUSPENDED));
+        for (String spared : List.of(created, reactivated, active)) {
+            assertThat(bankAccountRepository.findStatusById(spared)).isNotEqualTo(Optional.of(AccountStatus.SUSPENDED));
+        }
+        assertThat(accountDormancyService.suspendDormantAccounts()).isZero();
+    }
+
+    private String newAccount(String id, Date createdAt, AccountStatus status, Date statusChangedAt) {
+        CurrentAccount account = new CurrentAccount();
+        account.setId(id);
+        account.setCreatedAt(createdAt);
+        account.setStatus(status);
+        account.setStatusChangedAt(statusChangedAt);
+        account.setCurrency("MAD");
+        return bankAccountRepository.save(account).getId();
+    }
+}
@@ -0,0 +1,45 @@
+package ma.enset.digitalbankingbackend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalanceEngineShardTests {
+
+    @Test
+    void accountsSurviveGrowthAndEviction() throws Exception {
+        BalanceEngineShard shard = new BalanceEngineShard("test-shard");
+        String[] ids = new String[5000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            shard.load(ids[i], i, "MAD");
+        }
+        for (int i = 0; i < ids.length; i += 2) {
+            shard.evict(ids[i]);
+        }
+
+        assertThat(shard.size()).isEqualTo(ids.length / 2);
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(shard.contains(ids[i])).isEqualTo(i % 2 == 1);
+            if (i % 2 == 1) {
+                assertThat(shard.credit(ids[i], 1)).isEqualTo(i + 1);
+                assertThat(shard.currency(ids[i])).isEqualTo("MAD");
+            }
+        }
+    }
+
+    @Test
+    void evictionBumpsTheGenerationEvenForUnknownAccounts() {
+        BalanceEngineShard shard = new BalanceEngineShard("test-shard");
+        long generation = shard.generation();
+
+        shard.evict("unknown");
+
+        assertThat(shard.generation()).isGreaterThan(generation);
+        shard.load("a", 10, "MAD");
+        shard.load("a", 99, "EUR");
+        assertThat(shard.balance("a")).isEqualTo(10);
+    }
+}
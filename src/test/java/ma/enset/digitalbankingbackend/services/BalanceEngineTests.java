@@ -0,0 +1,222 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.OffboardingReportDTO;
+import ma.enset.digitalbankingbackend.entities.CurrentAccount;
+import ma.enset.digitalbankingbackend.entities.Customer;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.BalanceNotSufficentException;
+import ma.enset.digitalbankingbackend.exceptions.BankAccountNotFoundException;
+import ma.enset.digitalbankingbackend.exceptions.OffboardingRejectedException;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import ma.enset.digitalbankingbackend.mappers.BankAccountMapperImpl;
+import ma.enset.digitalbankingbackend.repositories.AccountOperationRepository;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import ma.enset.digitalbankingbackend.repositories.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "bank.seed.enabled=false",
+        "bank.engine.enabled=true",
+        "bank.engine.journal-max-retries=1",
+        "bank.velocity.enabled=true",
+        "bank.velocity.max-debits=10",
+        "bank.archive.dir=target/engine-tests-archive"
+})
+@Import({BankAccountServiceImpl.class, BankAccountMapperImpl.class, OperationArchiveService.class, OperationArchiveWriter.class, OperationArchive.class,
+        PostingRuleChain.class, FxRateService.class, BalanceEngine.class, BalanceJournalWriter.class, VelocityPostingRule.class,
+        CustomerOffboardingService.class, CustomerOffboardingWriter.class, AccountStatusService.class, BalanceEngineTests.CreditLimitRule.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceEngineTests {
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private BalanceEngine balanceEngine;
+    @Autowired
+    private BalanceJournalWriter balanceJournalWriter;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private AccountOperationRepository accountOperationRepository;
+    @Autowired
+    private CustomerOffboardingService customerOffboardingService;
+    @Autowired
+    private CreditLimitRule creditLimitRule;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void debitBeyondBalanceIsRefusedLikeJpa() throws Exception {
+        String accountId = newAccount(100);
+
+        assertThatThrownBy(() -> bankAccountService.debit(accountId, 150, "Debit")).isInstanceOf(BalanceNotSufficentException.class);
+        assertThat(balanceEngine.getBalance(accountId).join()).isEqualTo(100);
+    }
+
+    @Test
+    void servicePostingsGoThroughTheEngineAndAreJournaled() throws Exception {
+        String source = newAccount(100);
+        String destination = newAccount(0);
+
+        bankAccountService.transfer(source, destination, 40);
+
+        assertThat(balanceEngine.getBalance(source).join()).isEqualTo(60);
+        assertThat(balanceEngine.getBalance(destination).join()).isEqualTo(40);
+        awaitTrue(() -> bankAccountRepository.findById(destination).orElseThrow().getBalance() == 40);
+        assertThat(bankAccountRepository.findById(source).orElseThrow().getBalance()).isEqualTo(60);
+        assertThat(accountOperationRepository.countByBankAccountId(source)).isEqualTo(1);
+    }
+
+    @Test
+    void failingEntryIsSetAsideWithoutBlockingTheJournal() throws Exception {
+        String accountId = newAccount(0);
+        String missing = UUID.randomUUID().toString();
+
+        balanceJournalWriter.append(new BalanceJournalWriter.Entry(missing, OperationType.CREDIT, 10, "MAD", "Credit", new Date()));
+        balanceJournalWriter.append(new BalanceJournalWriter.Entry(accountId, OperationType.CREDIT, 10, "MAD", "Credit", new Date()));
+
+        awaitTrue(() -> bankAccountRepository.findById(accountId).orElseThrow().getBalance() == 10);
+        awaitTrue(() -> !balanceJournalWriter.getRejectedEntries().isEmpty());
+        assertThat(balanceJournalWriter.getRejectedEntries()).extracting(BalanceJournalWriter.Entry::getAccountId).containsExactly(missing);
+    }
+
+    @Test
+    void transferToRefusedDestinationLeavesSourceUntouched() throws Exception {
+        String source = newAccount(100);
+        String destination = newAccount(0);
+        creditLimitRule.allowedChecks.put(destination, 0);
+
+        assertThatThrownBy(() -> bankAccountService.transfer(source, destination, 40)).isInstanceOf(PostingRejectedException.class);
+        assertThat(balanceEngine.getBalance(source).join()).isEqualTo(100);
+        assertThat(balanceEngine.getBalance(destination).join()).isEqualTo(0);
+    }
+
+    @Test
+    void creditRefusedAfterDebitIsCompensated() throws Exception {
+        String source = newAccount(100);
+        String destination = newAccount(0);
+        creditLimitRule.allowedChecks.put(destination, 1);
+
+        assertThatThrownBy(() -> bankAccountService.transfer(source, destination, 40)).isInstanceOf(PostingRejectedException.class);
+        assertThat(balanceEngine.getBalance(source).join()).isEqualTo(100);
+        assertThat(balanceEngine.getBalance(destination).join()).isEqualTo(0);
+        awaitTrue(() -> accountOperationRepository.countByBankAccountId(source) == 2);
+        assertThat(bankAccountRepository.findById(source).orElseThrow().getBalance()).isEqualTo(100);
+    }
+
+    @Test
+    void refusedDebitsDoNotUseUpTheVelocityBudget() throws Exception {
+        String accountId = newAccount(10);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> bankAccountService.debit(accountId, 50, "Debit")).isInstanceOf(BalanceNotSufficentException.class);
+        }
+        for (int i = 0; i < 10; i++) {
+            bankAccountService.debit(accountId, 0.5, "Debit");
+        }
+        assertThatThrownBy(() -> bankAccountService.debit(accountId, 0.5, "Debit")).isInstanceOf(PostingRejectedException.class);
+        assertThat(balanceEngine.getBalance(accountId).join()).isEqualTo(5);
+    }
+
+    @Test
+    void invalidatedAccountIsReadAgainOnceTheJournalCaughtUp() throws Exception {
+        String accountId = newAccount(100);
+        bankAccountService.credit(accountId, 50, "Credit");
+        transactionTemplate.executeWithoutResult(status -> bankAccountRepository.addToBalance(accountId, 25));
+
+        balanceEngine.invalidate(List.of(accountId));
+
+        assertThat(balanceEngine.getBalance(accountId).join()).isEqualTo(175);
+    }
+
+    @Test
+    void deletedAccountIsNotFoundOnceInvalidated() throws Exception {
+        String accountId = newAccount(0);
+        assertThat(balanceEngine.getBalance(accountId).join()).isEqualTo(0);
+        bankAccountRepository.deleteById(accountId);
+
+        balanceEngine.invalidate(List.of(accountId));
+
+        assertThatThrownBy(() -> bankAccountService.credit(accountId, 10, "Credit")).isInstanceOf(BankAccountNotFoundException.class);
+    }
+
+    @Test
+    void offboardingSeesPostingsTheJournalHasNotWrittenYet() throws Exception {
+        String accountId = newAccount(0);
+        Long customerId = bankAccountRepository.findById(accountId).orElseThrow().getCustomer().getId();
+        bankAccountService.credit(accountId, 10, "Credit");
+
+        assertThatThrownBy(() -> customerOffboardingService.deleteCustomer(customerId, null)).isInstanceOf(OffboardingRejectedException.class);
+        assertThat(bankAccountRepository.existsById(accountId)).isTrue();
+    }
+
+    @Test
+    void offboardingArchivesEveryJournaledOperation() throws Exception {
+        String accountId = newAccount(0);
+        Long customerId = bankAccountRepository.findById(accountId).orElseThrow().getCustomer().getId();
+        bankAccountService.credit(accountId, 10, "Credit");
+        bankAccountService.debit(accountId, 10, "Debit");
+
+        OffboardingReportDTO report = customerOffboardingService.deleteCustomer(customerId, null);
+
+        assertThat(report.getArchivedOperations()).isEqualTo(2);
+        assertThat(bankAccountRepository.existsById(accountId)).isFalse();
+        assertThat(balanceJournalWriter.getRejectedEntries()).extracting(BalanceJournalWriter.Entry::getAccountId).doesNotContain(accountId);
+    }
+
+    private String newAccount(double balance) {
+        Customer customer = new Customer();
+        customer.setName("Hassan");
+        customer.setEmail("hassan@gmail.com");
+        customer = customerRepository.save(customer);
+        CurrentAccount account = new CurrentAccount();
+        account.setId(UUID.randomUUID().toString());
+        account.setCreatedAt(new Date());
+        account.setBalance(balance);
+        account.setOverDraft(500);
+        account.setCurrency("MAD");
+        account.setCustomer(customer);
+        return bankAccountRepository.save(account).getId();
+    }
+
+    private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Lets a configured number of credit checks through for an account, then refuses the rest.
+     */
+    static class CreditLimitRule implements PostingRule {
+        final Map<String, Integer> allowedChecks = new ConcurrentHashMap<>();
+
+        @Override
+        public void check(String accountId, OperationType type, double amount) throws PostingRejectedException {
+            if (type == OperationType.CREDIT && allowedChecks.containsKey(accountId)
+                    && allowedChecks.merge(accountId, -1, Integer::sum) < 0) {
+                throw new PostingRejectedException("Credit refused for account " + accountId);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.ImportReportDTO;
+import ma.enset.digitalbankingbackend.entities.BankAccount;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import ma.enset.digitalbankingbackend.repositories.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "bank.seed.enabled=false",
+        "bank.import.chunk-size=2",
+        "bank.fx.rates-file=target/no-fx-rates.properties"
+})
+@Import({CustomerImportService.class, CustomerImportWriter.class, FxRateService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerImportTests {
+    private static final String TOO_LONG = "x".repeat(300);
+
+    @Autowired
+    private CustomerImportService customerImportService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void invalidRowsAreSkippedAndAFailedChunkIsResumed() throws Exception {
+        String[] lines = {
+                row("Hassan", "MAD"),
+                row("Yassine", null),
+                row("Unknown currency", "XYZ"),
+                "{not json",
+                row(TOO_LONG, "MAD"),
+                row("Aicha", "MAD")
+        };
+
+        ImportReportDTO first = customerImportService.importCustomers(input(lines), 0);
+
+        assertThat(first.isCompleted()).isFalse();
+        assertThat(first.getLastCommittedLine()).isEqualTo(4);
+        assertThat(first.getLinesRead()).isEqualTo(4);
+        assertThat(first.getCustomersImported()).isEqualTo(2);
+        assertThat(first.getRejected()).isEqualTo(2);
+        assertThat(customerRepository.count()).isEqualTo(2);
+
+        lines[4] = row("Omar", "MAD");
+        ImportReportDTO second = customerImportService.importCustomers(input(lines), first.getLastCommittedLine());
+
+        assertThat(second.isCompleted()).isTrue();
+        assertThat(second.getLastCommittedLine()).isEqualTo(6);
+        assertThat(second.getCustomersImported()).isEqualTo(2);
+        assertThat(customerRepository.count()).isEqualTo(4);
+        assertThat(bankAccountRepository.findAll()).hasSize(4).extracting(BankAccount::getCurrency).containsOnly("MAD");
+    }
+
+    private static String row(String name, String currency) {
+        return "{\"name\":\"" + name + "\",\"email\":\"customer@gmail.com\",\"accounts\":[{\"type\":\"CurrentAccount\",\"balance\":100,"
+                + (currency == null ? "" : "\"currency\":\"" + currency + "\",") + "\"overDraft\":500}]}";
+    }
+
+    private static ByteArrayInputStream input(String[] lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,117 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.OffboardingReportDTO;
+import ma.enset.digitalbankingbackend.entities.AccountOperation;
+import ma.enset.digitalbankingbackend.entities.CurrentAccount;
+import ma.enset.digitalbankingbackend.entities.Customer;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.OffboardingRejectedException;
+import ma.enset.digitalbankingbackend.repositories.AccountOperationRepository;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import ma.enset.digitalbankingbackend.repositories.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "bank.seed.enabled=false",
+        "bank.archive.dir=target/offboarding-tests-archive"
+})
+@Import({CustomerOffboardingService.class, CustomerOffboardingWriter.class, AccountStatusService.class, OperationArchiveService.class,
+        OperationArchiveWriter.class, OperationArchive.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerOffboardingTests {
+    @Autowired
+    private CustomerOffboardingService customerOffboardingService;
+    @Autowired
+    private OperationArchiveService operationArchiveService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private AccountOperationRepository accountOperationRepository;
+
+    @Test
+    void customerHoldingFundsIsRejected() {
+        Long customerId = newCustomer();
+        String accountId = newAccount(customerId, 10);
+
+        assertThatThrownBy(() -> customerOffboardingService.deleteCustomer(customerId, null)).isInstanceOf(OffboardingRejectedException.class);
+        assertThat(customerRepository.existsById(customerId)).isTrue();
+        assertThat(bankAccountRepository.existsById(accountId)).isTrue();
+    }
+
+    @Test
+    void emptyAccountsAreArchivedAndDeleted() throws Exception {
+        Long customerId = newCustomer();
+        String accountId = newAccount(customerId, 0);
+        newOperation(accountId, OperationType.CREDIT);
+        newOperation(accountId, OperationType.DEBIT);
+
+        OffboardingReportDTO report = customerOffboardingService.deleteCustomer(customerId, null);
+
+        assertThat(report.getAccounts()).isEqualTo(1);
+        assertThat(report.getArchivedOperations()).isEqualTo(2);
+        assertThat(customerRepository.existsById(customerId)).isFalse();
+        assertThat(bankAccountRepository.existsById(accountId)).isFalse();
+        assertThat(operationArchiveService.countArchived(accountId)).isEqualTo(2);
+    }
+
+    @Test
+    void fundedAccountsAreMovedToAnotherCustomer() throws Exception {
+        Long customerId = newCustomer();
+        Long heirId = newCustomer();
+        String accountId = newAccount(customerId, 10);
+
+        OffboardingReportDTO report = customerOffboardingService.deleteCustomer(customerId, heirId);
+
+        assertThat(report.getAccounts()).isEqualTo(1);
+        assertThat(customerRepository.existsById(customerId)).isFalse();
+        assertThat(bankAccountRepository.findIdsByCustomerId(heirId)).containsExactly(accountId);
+    }
+
+    @Test
+    void transferToTheSameCustomerIsRejected() {
+        Long customerId = newCustomer();
+
+        assertThatThrownBy(() -> customerOffboardingService.deleteCustomer(customerId, customerId)).isInstanceOf(OffboardingRejectedException.class);
+        assertThat(customerRepository.existsById(customerId)).isTrue();
+    }
+
+    private Long newCustomer() {
+        Customer customer = new Customer();
+        customer.setName("Hassan");
+        customer.setEmail("hassan@gmail.com");
+        return customerRepository.save(customer).getId();
+    }
+
+    private String newAccount(Long customerId, double balance) {
+        CurrentAccount account = new CurrentAccount();
+        account.setId(UUID.randomUUID().toString());
+        account.setCreatedAt(new Date());
+        account.setBalance(balance);
+        account.setCurrency("MAD");
+        account.setCustomer(customerRepository.getReferenceById(customerId));
+        return bankAccountRepository.save(account).getId();
+    }
+
+    private void newOperation(String accountId, OperationType type) {
+        AccountOperation operation = new AccountOperation();
+        operation.setBankAccount(bankAccountRepository.getReferenceById(accountId));
+        operation.setOperationDate(new Date());
+        operation.setAmount(10);
+        operation.setType(type);
+        accountOperationRepository.save(operation);
+    }
+}
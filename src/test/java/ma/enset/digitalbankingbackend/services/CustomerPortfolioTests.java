@@ -0,0 +1,72 @@
+package ma.enset.digitalbankingbackend.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import ma.enset.digitalbankingbackend.dtos.CustomerPortfolioDTO;
+import ma.enset.digitalbankingbackend.entities.*;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.mappers.BankAccountMapperImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "bank.seed.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({BankAccountServiceImpl.class, BankAccountMapperImpl.class, OperationArchiveService.class, OperationArchiveWriter.class, OperationArchive.class, PostingRuleChain.class, FxRateService.class})
+class CustomerPortfolioTests {
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void portfolioIsLoadedWithTwoStatements() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Hassan");
+        customer.setEmail("hassan@gmail.com");
+        entityManager.persist(customer);
+        for (int a = 0; a < 3; a++) {
+            CurrentAccount account = new CurrentAccount();
+            account.setId(UUID.randomUUID().toString());
+            account.setCreatedAt(new Date());
+            account.setBalance(1000);
+            account.setCustomer(customer);
+            entityManager.persist(account);
+            for (int i = 0; i < 10; i++) {
+                AccountOperation operation = new AccountOperation();
+                operation.setBankAccount(account);
+                operation.setOperationDate(new Date(1_700_000_000_000L + i * 1000L));
+                operation.setAmount(i);
+                operation.setType(OperationType.CREDIT);
+                entityManager.persist(operation);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CustomerPortfolioDTO portfolio = bankAccountService.getCustomerPortfolio(customer.getId(), 4);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(portfolio.getCustomerDTO().getName()).isEqualTo("Hassan");
+        assertThat(portfolio.getAccounts()).hasSize(3);
+        assertThat(portfolio.getAccounts()).allSatisfy(account -> {
+            assertThat(account.getLastOperations()).hasSize(4);
+            assertThat(account.getLastOperations().get(0).getAmount()).isEqualTo(9);
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class FxRateServiceTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    void convertsThroughTheBaseCurrency() throws Exception {
+        FxRateService fxRateService = loaded("EUR=10.8\nUSD=10.0\n", 1);
+
+        assertThat(fxRateService.convert(100, "EUR", "MAD")).isCloseTo(1080, within(1e-9));
+        assertThat(fxRateService.convert(1080, "MAD", "EUR")).isCloseTo(100, within(1e-9));
+        assertThat(fxRateService.convert(100, "EUR", "USD")).isCloseTo(108, within(1e-9));
+        assertThat(fxRateService.convert(100, null, "MAD")).isEqualTo(100);
+        assertThatThrownBy(() -> fxRateService.convert(100, "EUR", "GBP")).isInstanceOf(PostingRejectedException.class);
+    }
+
+    @Test
+    void invalidTableIsRejectedAsAWhole() throws Exception {
+        FxRateService fxRateService = loaded("EUR=10.8\n", 1);
+
+        for (String table : new String[]{"EUR=11\nUSD=0\n", "EUR=11\nUSD=-1\n", "EUR=11\nUSD=NaN\n", "EUR=11\nUSD=Infinity\n", "EUR=11\nusd=10\n", "EUR=11\nUSD=abc\n"}) {
+            write(table, 2);
+            fxRateService.refresh();
+
+            assertThat(fxRateService.convert(1, "EUR", "MAD")).isEqualTo(10.8);
+            assertThatThrownBy(() -> fxRateService.convert(1, "USD", "MAD")).isInstanceOf(PostingRejectedException.class);
+        }
+    }
+
+    private FxRateService loaded(String table, long modifiedTime) throws Exception {
+        write(table, modifiedTime);
+        FxRateService fxRateService = new FxRateService("MAD", directory.resolve("fx-rates.properties").toString());
+        fxRateService.refresh();
+        return fxRateService;
+    }
+
+    private void write(String table, long modifiedTime) throws Exception {
+        Path file = directory.resolve("fx-rates.properties");
+        Files.writeString(file, table);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedTime * 1000));
+    }
+}
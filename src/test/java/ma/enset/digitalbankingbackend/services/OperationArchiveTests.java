@@ -0,0 +1,70 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.AccountOperationDTO;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OperationArchiveTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    void segmentRoundTrip() throws Exception {
+        OperationArchive operationArchive = new OperationArchive(directory.toString());
+        List<AccountOperationDTO> operations = List.of(
+                operation(17, 1_700_000_000_000L, 120.5, OperationType.CREDIT, "Salary", "MAD"),
+                operation(18, 1_700_000_000_000L, 0.01, OperationType.DEBIT, null, null),
+                operation(42, 1_700_086_400_123L, 99_999.99, OperationType.DEBIT, "Café \"quoted\", with comma", "EUR"));
+
+        Path path = operationArchive.write("account-1", YearMonth.of(2023, 11), operations);
+        operationArchive.publish(path);
+
+        assertThat(path).startsWith(directory);
+        assertThat(operationArchive.read(path)).isEqualTo(operations);
+    }
+
+    @Test
+    void segmentStaysStagedUntilPublished() throws Exception {
+        OperationArchive operationArchive = new OperationArchive(directory.toString());
+        List<AccountOperationDTO> operations = List.of(operation(1, 1_700_000_000_000L, 10, OperationType.CREDIT, "Salary", "MAD"));
+
+        Path discarded = operationArchive.write("account-1", YearMonth.of(2023, 11), operations);
+        operationArchive.discard(discarded);
+        Path staged = operationArchive.write("account-1", YearMonth.of(2023, 12), operations);
+
+        assertThat(discarded.getParent()).isDirectoryNotContaining(file -> file.getFileName().toString().startsWith("2023-11"));
+        assertThat(staged).doesNotExist();
+        // committed but never moved in place: published on first read
+        assertThat(operationArchive.read(staged)).isEqualTo(operations);
+        assertThat(staged).exists();
+    }
+
+    @Test
+    void emptySegmentRoundTrip() throws Exception {
+        OperationArchive operationArchive = new OperationArchive(directory.toString());
+
+        Path path = operationArchive.write("account-1", YearMonth.of(2023, 12), List.of());
+        operationArchive.publish(path);
+
+        assertThat(operationArchive.read(path)).isEmpty();
+    }
+
+    private static AccountOperationDTO operation(long id, long date, double amount, OperationType type, String description, String currency) {
+        AccountOperationDTO operation = new AccountOperationDTO();
+        operation.setId(id);
+        operation.setOperationDate(new Date(date));
+        operation.setAmount(amount);
+        operation.setType(type);
+        operation.setDescription(description);
+        operation.setCurrency(currency);
+        return operation;
+    }
+}
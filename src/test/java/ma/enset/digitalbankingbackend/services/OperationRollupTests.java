@@ -0,0 +1,145 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.DailyOperationTotalsDTO;
+import ma.enset.digitalbankingbackend.entities.AccountOperation;
+import ma.enset.digitalbankingbackend.entities.CurrentAccount;
+import ma.enset.digitalbankingbackend.entities.RollupCheckpoint;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.repositories.AccountDailyRollupRepository;
+import ma.enset.digitalbankingbackend.repositories.AccountOperationRepository;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import ma.enset.digitalbankingbackend.repositories.RollupCheckpointRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "bank.seed.enabled=false"
+})
+@Import(OperationRollupWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OperationRollupTests {
+    private static final long SETTLE_DELAY = 500;
+
+    @Autowired
+    private OperationRollupWriter operationRollupWriter;
+    @Autowired
+    private AccountDailyRollupRepository accountDailyRollupRepository;
+    @Autowired
+    private RollupCheckpointRepository rollupCheckpointRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private AccountOperationRepository accountOperationRepository;
+
+    @Test
+    void postingIsRolledUpOnceItSettled() throws Exception {
+        OperationRollupService operationRollupService = new OperationRollupService(operationRollupWriter, accountDailyRollupRepository, 100, SETTLE_DELAY);
+        String accountId = newAccount();
+        newOperation(accountId, new Date(), OperationType.CREDIT, 100);
+        newOperation(accountId, new Date(), OperationType.DEBIT, 40);
+
+        operationRollupService.rollup();
+        assertThat(totals(operationRollupService, accountId)).isEmpty();
+
+        Thread.sleep(SETTLE_DELAY + 100);
+        operationRollupService.rollup();
+
+        assertThat(totals(operationRollupService, accountId)).singleElement().satisfies(day -> {
+            assertThat(day.getCreditTotal()).isEqualTo(100);
+            assertThat(day.getCreditCount()).isEqualTo(1);
+            assertThat(day.getDebitTotal()).isEqualTo(40);
+            assertThat(day.getDebitCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void backlogIsCaughtUpAcrossBatchesUpToTheFirstUnsettledPosting() throws Exception {
+        OperationRollupService operationRollupService = new OperationRollupService(operationRollupWriter, accountDailyRollupRepository, 5, SETTLE_DELAY);
+        String accountId = newAccount();
+        Date yesterday = Date.from(new Date().toInstant().minus(1, ChronoUnit.DAYS));
+        for (int i = 0; i < 12; i++) {
+            newOperation(accountId, yesterday, OperationType.CREDIT, 10);
+        }
+        newOperation(accountId, new Date(), OperationType.CREDIT, 1);
+        newOperation(accountId, yesterday, OperationType.CREDIT, 10);
+
+        operationRollupService.rollup();
+        assertThat(totals(operationRollupService, accountId)).extracting(DailyOperationTotalsDTO::getCreditCount).containsExactly(12L);
+
+        Thread.sleep(SETTLE_DELAY + 100);
+        operationRollupService.rollup();
+
+        assertThat(totals(operationRollupService, accountId)).extracting(DailyOperationTotalsDTO::getCreditCount).containsExactly(13L, 1L);
+    }
+
+    @Test
+    void concurrentRollupsCountEveryOperationOnce() throws Exception {
+        if (!rollupCheckpointRepository.existsById(OperationRollupWriter.CHECKPOINT)) {
+            rollupCheckpointRepository.save(new RollupCheckpoint(OperationRollupWriter.CHECKPOINT, 0L));
+        }
+        String accountId = newAccount();
+        Date yesterday = Date.from(new Date().toInstant().minus(1, ChronoUnit.DAYS));
+        for (int i = 0; i < 200; i++) {
+            newOperation(accountId, yesterday, OperationType.CREDIT, 1);
+        }
+        Date settledBefore = new Date(System.currentTimeMillis() + 60_000);
+
+        ExecutorService nodes = Executors.newFixedThreadPool(4);
+        List<Future<?>> runs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            runs.add(nodes.submit(() -> {
+                while (operationRollupWriter.applyNextBatch(7, settledBefore) > 0) {
+                    Thread.yield();
+                }
+            }));
+        }
+        for (Future<?> run : runs) {
+            run.get();
+        }
+        nodes.shutdown();
+
+        OperationRollupService operationRollupService = new OperationRollupService(operationRollupWriter, accountDailyRollupRepository, 100, SETTLE_DELAY);
+        assertThat(totals(operationRollupService, accountId)).singleElement().satisfies(day -> {
+            assertThat(day.getCreditCount()).isEqualTo(200);
+            assertThat(day.getCreditTotal()).isEqualTo(200);
+        });
+    }
+
+    private List<DailyOperationTotalsDTO> totals(OperationRollupService operationRollupService, String accountId) {
+        return operationRollupService.accountDailyTotals(accountId, LocalDate.now().minusDays(7), LocalDate.now().plusDays(1));
+    }
+
+    private String newAccount() {
+        CurrentAccount account = new CurrentAccount();
+        account.setId(UUID.randomUUID().toString());
+        account.setCreatedAt(new Date());
+        account.setCurrency("MAD");
+        return bankAccountRepository.save(account).getId();
+    }
+
+    private void newOperation(String accountId, Date date, OperationType type, double amount) {
+        AccountOperation operation = new AccountOperation();
+        operation.setBankAccount(bankAccountRepository.getReferenceById(accountId));
+        operation.setOperationDate(date);
+        operation.setAmount(amount);
+        operation.setType(type);
+        accountOperationRepository.save(operation);
+    }
+}
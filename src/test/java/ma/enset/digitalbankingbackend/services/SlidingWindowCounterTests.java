@@ -0,0 +1,68 @@
+package ma.enset.digitalbankingbackend.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTests {
+
+    @Test
+    void countLimitIsInclusive() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(3);
+
+        assertThat(counter.tryAdd(10, 1, 3, Long.MAX_VALUE)).isTrue();
+        assertThat(counter.tryAdd(10, 1, 3, Long.MAX_VALUE)).isTrue();
+        assertThat(counter.tryAdd(11, 1, 3, Long.MAX_VALUE)).isTrue();
+        assertThat(counter.tryAdd(11, 1, 3, Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void amountLimitIsInclusive() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(3);
+
+        assertThat(counter.tryAdd(10, 6_000, 100, 10_000)).isTrue();
+        assertThat(counter.tryAdd(10, 4_001, 100, 10_000)).isFalse();
+        assertThat(counter.tryAdd(10, 4_000, 100, 10_000)).isTrue();
+        assertThat(counter.tryAdd(10, 1, 100, 10_000)).isFalse();
+    }
+
+    @Test
+    void bucketsLeaveTheWindowAndAreReused() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(3);
+        assertThat(counter.tryAdd(10, 100, 3, 1_000)).isTrue();
+        assertThat(counter.tryAdd(11, 100, 3, 1_000)).isTrue();
+        assertThat(counter.tryAdd(12, 100, 3, 1_000)).isTrue();
+        assertThat(counter.tryAdd(12, 100, 3, 1_000)).isFalse();
+
+        // epoch 13 reuses the slot of epoch 10, which no longer counts
+        assertThat(counter.tryAdd(13, 100, 3, 1_000)).isTrue();
+        assertThat(counter.tryAdd(13, 100, 3, 1_000)).isFalse();
+        // two turns later the whole window has expired
+        assertThat(counter.tryAdd(20, 1_000, 3, 1_000)).isTrue();
+        assertThat(counter.getLastEpoch()).isEqualTo(20);
+    }
+
+    @Test
+    void refusedPostingsDoNotMoveTheLastEpoch() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(3);
+        assertThat(counter.tryAdd(10, 100, 1, 1_000)).isTrue();
+
+        assertThat(counter.tryAdd(11, 100, 1, 1_000)).isFalse();
+
+        assertThat(counter.getLastEpoch()).isEqualTo(10);
+    }
+
+    @Test
+    void removedPostingsFreeTheirShare() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(3);
+        assertThat(counter.tryAdd(10, 600, 2, 1_000)).isTrue();
+        assertThat(counter.tryAdd(10, 400, 2, 1_000)).isTrue();
+
+        counter.remove(10, 400);
+        assertThat(counter.tryAdd(10, 400, 2, 1_000)).isTrue();
+
+        // released after the bucket rotated: taken from the bucket the posting went into
+        counter.remove(11, 400);
+        assertThat(counter.tryAdd(11, 400, 2, 1_000)).isTrue();
+    }
+}
@@ -0,0 +1,101 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.StandingOrderDTO;
+import ma.enset.digitalbankingbackend.entities.CurrentAccount;
+import ma.enset.digitalbankingbackend.entities.Customer;
+import ma.enset.digitalbankingbackend.enums.StandingOrderFrequency;
+import ma.enset.digitalbankingbackend.exceptions.BalanceNotSufficentException;
+import ma.enset.digitalbankingbackend.mappers.BankAccountMapperImpl;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import ma.enset.digitalbankingbackend.repositories.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "bank.seed.enabled=false"
+})
+@Import({StandingOrderService.class, BankAccountServiceImpl.class, BankAccountMapperImpl.class, OperationArchiveService.class,
+        OperationArchiveWriter.class, OperationArchive.class, PostingRuleChain.class, FxRateService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StandingOrderTests {
+    private static final int ORDERS = 50;
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void ordersSharingASourceAccountNeitherLoseUpdatesNorOverdraw() throws Exception {
+        String source = newAccount(1000);
+        String destination = newAccount(0);
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(newOrder(source, destination, 30));
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> executions = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            executions.add(workers.submit(() -> {
+                try {
+                    standingOrderService.execute(orderId);
+                    return true;
+                } catch (BalanceNotSufficentException e) {
+                    return false;
+                }
+            }));
+        }
+        int executed = 0;
+        for (Future<Boolean> execution : executions) {
+            executed += execution.get() ? 1 : 0;
+        }
+        workers.shutdown();
+
+        assertThat(executed).isEqualTo(33);
+        assertThat(bankAccountRepository.findById(source).orElseThrow().getBalance()).isEqualTo(10);
+        assertThat(bankAccountRepository.findById(destination).orElseThrow().getBalance()).isEqualTo(990);
+    }
+
+    private Long newOrder(String source, String destination, double amount) throws Exception {
+        StandingOrderDTO standingOrderDTO = new StandingOrderDTO();
+        standingOrderDTO.setSourceAccountId(source);
+        standingOrderDTO.setDestinationAccountId(destination);
+        standingOrderDTO.setAmount(amount);
+        standingOrderDTO.setDescription("Payroll");
+        standingOrderDTO.setFrequency(StandingOrderFrequency.MONTHLY);
+        standingOrderDTO.setNextExecution(new Date(System.currentTimeMillis() - 1000));
+        return standingOrderService.saveStandingOrder(standingOrderDTO).getId();
+    }
+
+    private String newAccount(double balance) {
+        Customer customer = new Customer();
+        customer.setName("Hassan");
+        customer.setEmail("hassan@gmail.com");
+        customer = customerRepository.save(customer);
+        CurrentAccount account = new CurrentAccount();
+        account.setId(UUID.randomUUID().toString());
+        account.setCreatedAt(new Date());
+        account.setBalance(balance);
+        account.setCurrency("MAD");
+        account.setCustomer(customer);
+        return bankAccountRepository.save(account).getId();
+    }
+}
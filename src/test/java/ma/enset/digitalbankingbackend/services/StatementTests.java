@@ -0,0 +1,121 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.dtos.StatementRunDTO;
+import ma.enset.digitalbankingbackend.entities.AccountOperation;
+import ma.enset.digitalbankingbackend.entities.CurrentAccount;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.repositories.AccountOperationRepository;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "bank.seed.enabled=false",
+        "bank.archive.dir=target/statement-tests-archive"
+})
+@Import({StatementWriter.class, OperationArchiveService.class, OperationArchiveWriter.class, OperationArchive.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatementTests {
+    private static final YearMonth MONTH = YearMonth.of(2024, 3);
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private StatementWriter statementWriter;
+    @Autowired
+    private OperationArchiveService operationArchiveService;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private AccountOperationRepository accountOperationRepository;
+
+    @Test
+    void balancesAreDerivedFromArchivedAndLiveOperations() throws Exception {
+        String accountId = newAccount(130);
+        newOperation(accountId, date(2024, 2, 10), OperationType.CREDIT, 100);
+        newOperation(accountId, date(2024, 3, 5), OperationType.CREDIT, 50);
+        newOperation(accountId, date(2024, 3, 20), OperationType.DEBIT, 30);
+        newOperation(accountId, date(2024, 4, 2), OperationType.CREDIT, 10);
+        operationArchiveService.archiveAccount(accountId, date(2024, 3, 1));
+
+        assertThat(statementWriter.writeStatement(accountId, MONTH, directory)).isTrue();
+
+        List<String> lines = Files.readAllLines(StatementWriter.statementPath(directory, MONTH, accountId));
+        assertThat(lines).contains("openingBalance,100.00", "closingBalance,120.00");
+        assertThat(lines).filteredOn(line -> line.contains(",CREDIT,") || line.contains(",DEBIT,"))
+                .extracting(line -> line.substring(line.lastIndexOf(',') + 1))
+                .containsExactly("150.00", "120.00");
+    }
+
+    @Test
+    void existingStatementsAreSkippedWhenARunIsResumed() throws Exception {
+        String accountId = newAccount(0);
+        StatementService statementService = new StatementService(bankAccountRepository, statementWriter, directory.toString(), 2, 1);
+
+        StatementRunDTO first = statementService.generateMonthlyStatements(MONTH);
+        Path statement = StatementWriter.statementPath(directory, MONTH, accountId);
+        Files.writeString(statement, "kept");
+        StatementRunDTO second = statementService.generateMonthlyStatements(MONTH);
+
+        assertThat(first.getFailed()).isZero();
+        assertThat(first.getGenerated()).isPositive();
+        assertThat(second.getGenerated()).isZero();
+        assertThat(second.getFailed()).isZero();
+        assertThat(second.getSkipped()).isEqualTo(first.getGenerated() + first.getSkipped());
+        assertThat(statement).hasContent("kept");
+    }
+
+    @Test
+    void statementIsMovedInPlaceOverALeftoverTempFile() throws Exception {
+        String accountId = newAccount(0);
+        Path statement = StatementWriter.statementPath(directory, MONTH, accountId);
+        Path temp = statement.resolveSibling(accountId + ".csv.tmp");
+        Files.createDirectories(statement.getParent());
+        Files.writeString(temp, "interrupted run");
+
+        assertThat(statementWriter.writeStatement(accountId, MONTH, directory)).isTrue();
+
+        assertThat(temp).doesNotExist();
+        assertThat(Files.readAllLines(statement)).startsWith("account," + accountId).contains("closingBalance,0.00");
+    }
+
+    private String newAccount(double balance) {
+        CurrentAccount account = new CurrentAccount();
+        account.setId(UUID.randomUUID().toString());
+        account.setCreatedAt(date(2024, 1, 1));
+        account.setBalance(balance);
+        account.setCurrency("MAD");
+        return bankAccountRepository.save(account).getId();
+    }
+
+    private void newOperation(String accountId, Date date, OperationType type, double amount) {
+        AccountOperation operation = new AccountOperation();
+        operation.setBankAccount(bankAccountRepository.getReferenceById(accountId));
+        operation.setOperationDate(date);
+        operation.setAmount(amount);
+        operation.setType(type);
+        accountOperationRepository.save(operation);
+    }
+
+    private static Date date(int year, int month, int day) {
+        return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
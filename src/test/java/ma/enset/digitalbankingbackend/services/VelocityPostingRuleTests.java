@@ -0,0 +1,78 @@
+package ma.enset.digitalbankingbackend.services;
+
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import ma.enset.digitalbankingbackend.exceptions.PostingRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VelocityPostingRuleTests {
+
+    @Test
+    void concurrentDebitsCannotAllSlipUnderTheLimit() throws Exception {
+        VelocityPostingRule rule = new VelocityPostingRule(50, 1_000_000, 3_600_000, 10, 1000);
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> debits = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            debits.add(workers.submit(() -> {
+                start.await();
+                try {
+                    rule.check("account", OperationType.DEBIT, 1);
+                    return true;
+                } catch (PostingRejectedException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int accepted = 0;
+        for (Future<Boolean> debit : debits) {
+            accepted += debit.get() ? 1 : 0;
+        }
+        workers.shutdown();
+
+        assertThat(accepted).isEqualTo(50);
+    }
+
+    @Test
+    void idleAccountsAreEvictedToMakeRoom() throws Exception {
+        VelocityPostingRule rule = new VelocityPostingRule(10, 1_000_000, 100, 2, 1);
+        rule.check("a", OperationType.DEBIT, 1);
+
+        assertThatThrownBy(() -> rule.check("b", OperationType.DEBIT, 1)).isInstanceOf(PostingRejectedException.class);
+        Thread.sleep(150);
+        rule.check("b", OperationType.DEBIT, 1);
+    }
+
+    @Test
+    void rolledBackDebitsGiveTheirReservationBack() throws Exception {
+        VelocityPostingRule rule = new VelocityPostingRule(1, 1_000_000, 3_600_000, 10, 1000);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("velocityPostingRule", rule);
+        PostingRuleChain chain = new PostingRuleChain(beanFactory.getBeanProvider(PostingRule.class));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            chain.check("account", OperationType.DEBIT, 1);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        chain.check("account", OperationType.DEBIT, 1);
+        assertThatThrownBy(() -> chain.check("account", OperationType.DEBIT, 1)).isInstanceOf(PostingRejectedException.class);
+    }
+}
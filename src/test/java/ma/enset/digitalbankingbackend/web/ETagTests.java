@@ -0,0 +1,104 @@
+package ma.enset.digitalbankingbackend.web;
+
+import ma.enset.digitalbankingbackend.dtos.CustomerDTO;
+import ma.enset.digitalbankingbackend.entities.CurrentAccount;
+import ma.enset.digitalbankingbackend.mappers.BankAccountMapperImpl;
+import ma.enset.digitalbankingbackend.repositories.BankAccountRepository;
+import ma.enset.digitalbankingbackend.repositories.CustomerRepository;
+import ma.enset.digitalbankingbackend.services.BankAccountService;
+import ma.enset.digitalbankingbackend.services.BankAccountServiceImpl;
+import ma.enset.digitalbankingbackend.services.FxRateService;
+import ma.enset.digitalbankingbackend.services.OperationArchive;
+import ma.enset.digitalbankingbackend.services.OperationArchiveService;
+import ma.enset.digitalbankingbackend.services.OperationArchiveWriter;
+import ma.enset.digitalbankingbackend.services.PostingRuleChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "bank.seed.enabled=false"
+})
+@Import({BankAccountServiceImpl.class, BankAccountMapperImpl.class, OperationArchiveService.class, OperationArchiveWriter.class,
+        OperationArchive.class, PostingRuleChain.class, FxRateService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ETagTests {
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void matchingIfNoneMatchAnswersNotModified() {
+        CustomerRestController customerRestController = new CustomerRestController(bankAccountService, null, null, null);
+        newCustomer("Hassan");
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(customerRestController.customers(new ServletWebRequest(new MockHttpServletRequest("GET", "/customers"), first))).isNotEmpty();
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/\"");
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/customers");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(customerRestController.customers(new ServletWebRequest(conditional, second))).isNull();
+        assertThat(second.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void updatingACustomerChangesItsETags() throws Exception {
+        CustomerDTO customer = newCustomer("Hassan");
+        String listVersion = bankAccountService.customersVersion();
+        String customerVersion = bankAccountService.customerVersion(customer.getId());
+
+        customer.setEmail("hassan@enset.ma");
+        bankAccountService.updateCustomer(customer);
+
+        assertThat(bankAccountService.customersVersion()).isNotEqualTo(listVersion);
+        assertThat(bankAccountService.customerVersion(customer.getId())).isNotEqualTo(customerVersion);
+    }
+
+    @Test
+    void deleteAndInsertChangeTheListETag() {
+        CustomerDTO customer = newCustomer("Hassan");
+        String oldest = newAccount(customer, new Date(0));
+        newAccount(customer, new Date());
+        String version = bankAccountService.bankAccountsVersion();
+
+        bankAccountRepository.deleteById(oldest);
+        newAccount(customer, new Date(0));
+
+        assertThat(bankAccountService.bankAccountsVersion()).isNotEqualTo(version);
+    }
+
+    private CustomerDTO newCustomer(String name) {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setName(name);
+        customerDTO.setEmail("hassan@gmail.com");
+        return bankAccountService.saveCustomer(customerDTO);
+    }
+
+    private String newAccount(CustomerDTO customer, Date createdAt) {
+        CurrentAccount account = new CurrentAccount();
+        account.setId(UUID.randomUUID().toString());
+        account.setCreatedAt(createdAt);
+        account.setCurrency("MAD");
+        account.setCustomer(customerRepository.getReferenceById(customer.getId()));
+        return bankAccountRepository.save(account).getId();
+    }
+}
@@ -0,0 +1,47 @@
+package ma.enset.digitalbankingbackend.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ma.enset.digitalbankingbackend.dtos.AccountHistoryDTO;
+import ma.enset.digitalbankingbackend.dtos.AccountOperationDTO;
+import ma.enset.digitalbankingbackend.enums.OperationType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WireFormatTests {
+    private static final int OPERATIONS = 1_000;
+
+    @Test
+    void cborHistoryRoundTripsAndIsSmallerThanJson() throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        ObjectMapper cbor = new WireFormatConfig().cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+        AccountHistoryDTO history = history();
+
+        byte[] jsonBytes = json.writeValueAsBytes(history);
+        byte[] cborBytes = cbor.writeValueAsBytes(history);
+
+        assertThat(cbor.readValue(cborBytes, AccountHistoryDTO.class)).isEqualTo(history);
+        assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+    }
+
+    private static AccountHistoryDTO history() {
+        List<AccountOperationDTO> operations = new ArrayList<>(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i++) {
+            operations.add(new AccountOperationDTO((long) i, new Date(1_700_000_000_000L + i * 60_000L), 10 + i % 997 * 1.25,
+                    i % 3 == 0 ? OperationType.DEBIT : OperationType.CREDIT, i % 3 == 0 ? "Debit" : "Credit", "MAD"));
+        }
+        AccountHistoryDTO history = new AccountHistoryDTO();
+        history.setAccountId("0b9e3c1e-5a44-4d1f-9a0e-2f6c1d7e8a90");
+        history.setBalance(125_000);
+        history.setPageSize(OPERATIONS);
+        history.setTotalPages(1);
+        history.setAccountOperationDTOS(operations);
+        return history;
+    }
+}